@@ -0,0 +1,177 @@
+package com.momosoftworks.coldsweat.core.gametest;
+
+import com.momosoftworks.coldsweat.ColdSweat;
+import com.momosoftworks.coldsweat.api.event.common.temperautre.TempModifierEvent;
+import com.momosoftworks.coldsweat.api.temperature.modifier.TempModifier;
+import com.momosoftworks.coldsweat.api.util.Temperature;
+import com.momosoftworks.coldsweat.util.EventListenerCheck;
+import com.sun.management.ThreadMXBean;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Benchmarks for the TempModifier pipeline, run with the {@code gameTestServer} run configuration.
+ * They are in the {@code gametest} source set, so they aren't packaged with the mod.<br>
+ * Results are written to the log; the tests only fail if the results are clearly wrong.
+ */
+@GameTestHolder(ColdSweat.MOD_ID)
+@PrefixGameTestTemplate(false)
+public class TempModifierBenchmarks
+{
+    private static final int STACK_SIZE = 20;
+    private static final int WARMUP = 10000;
+    private static final int ITERATIONS = 50000;
+
+    // Results are written here so the JIT can't remove the measured loops
+    public static double BLACKHOLE = 0;
+
+    /**
+     * Measures the bytes allocated per {@link Temperature#apply} call over a 20-modifier stack,
+     * once with modifiers implementing {@code calculateOperator()} and once with modifiers implementing the boxed {@code calculate()}.
+     */
+    @GameTest(template = "empty")
+    public static void modifierStackAllocation(GameTestHelper helper)
+    {
+        if (!(ManagementFactory.getThreadMXBean() instanceof ThreadMXBean threadBean) || !threadBean.isThreadAllocatedMemorySupported())
+        {   ColdSweat.LOGGER.warn("This JVM can't measure thread allocations. Skipping the TempModifier allocation benchmark");
+            helper.succeed();
+            return;
+        }
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        LivingEntity player = helper.makeMockPlayer();
+        double primitiveBytes = measureAllocation(threadBean, player, createStack(PrimitiveModifier::new));
+        double boxedBytes = measureAllocation(threadBean, player, createStack(BoxedModifier::new));
+
+        ColdSweat.LOGGER.info("Temperature.apply() over {} modifiers allocates {} bytes per call with primitive modifiers, and {} bytes per call with boxed modifiers",
+                              STACK_SIZE, String.format("%.1f", primitiveBytes), String.format("%.1f", boxedBytes));
+        helper.assertTrue(primitiveBytes <= boxedBytes, "Primitive modifiers allocated more than boxed modifiers");
+        helper.succeed();
+    }
+
+    /**
+     * Measures the time per modifier update when nothing listens to {@link TempModifierEvent.Calculate},
+     * and when a listener is registered for both the Pre and Post events.<br>
+     * Also checks that the registered listeners see every event, and that updates stop posting events once they are unregistered.
+     */
+    @GameTest(template = "empty")
+    public static void modifierUpdateListeners(GameTestHelper helper)
+    {
+        LivingEntity player = helper.makeMockPlayer();
+        List<TempModifier> stack = createStack(PrimitiveModifier::new);
+
+        EventListenerCheck preListeners = new EventListenerCheck(TempModifierEvent.Calculate.Pre.class);
+        EventListenerCheck postListeners = new EventListenerCheck(TempModifierEvent.Calculate.Post.class);
+        // Another mod might already listen, in which case both measurements post the events
+        boolean alreadyListened = preListeners.hasListeners() || postListeners.hasListeners();
+        double withoutNanos = measureUpdateNanos(player, stack);
+
+        int[] events = {0};
+        Consumer<TempModifierEvent.Calculate.Pre> preListener = event -> events[0]++;
+        Consumer<TempModifierEvent.Calculate.Post> postListener = event -> events[0]++;
+        MinecraftForge.EVENT_BUS.addListener(EventPriority.NORMAL, false, TempModifierEvent.Calculate.Pre.class, preListener);
+        MinecraftForge.EVENT_BUS.addListener(EventPriority.NORMAL, false, TempModifierEvent.Calculate.Post.class, postListener);
+        double withNanos;
+        try
+        {   helper.assertTrue(preListeners.hasListeners() && postListeners.hasListeners(), "Registered listeners weren't detected");
+            withNanos = measureUpdateNanos(player, stack);
+            // Every update posts a Pre and a Post event
+            long expected = 2L * (WARMUP + ITERATIONS) * STACK_SIZE;
+            helper.assertTrue(events[0] == expected, "Registered listeners saw " + events[0] + " Calculate events instead of " + expected);
+        }
+        finally
+        {   MinecraftForge.EVENT_BUS.unregister(preListener);
+            MinecraftForge.EVENT_BUS.unregister(postListener);
+        }
+
+        events[0] = 0;
+        BLACKHOLE += runUpdates(player, stack, WARMUP);
+        helper.assertTrue(events[0] == 0, "Unregistered listeners saw " + events[0] + " Calculate events");
+        helper.assertTrue(alreadyListened || !preListeners.hasListeners() && !postListeners.hasListeners(), "Unregistered listeners were still detected");
+
+        ColdSweat.LOGGER.info("TempModifier.update() takes {} ns without Calculate listeners{}, and {} ns with them",
+                              String.format("%.1f", withoutNanos), alreadyListened ? " (another listener was already registered)" : "",
+                              String.format("%.1f", withNanos));
+        helper.succeed();
+    }
+
+    private static double measureUpdateNanos(LivingEntity entity, List<TempModifier> stack)
+    {
+        BLACKHOLE += runUpdates(entity, stack, WARMUP);
+        long start = System.nanoTime();
+        BLACKHOLE += runUpdates(entity, stack, ITERATIONS);
+        long elapsed = System.nanoTime() - start;
+        return elapsed / (double) ((long) ITERATIONS * STACK_SIZE);
+    }
+
+    private static double runUpdates(LivingEntity entity, List<TempModifier> stack, int count)
+    {
+        double temp = 0;
+        for (int i = 0; i < count; i++)
+        {   temp += Temperature.apply(0, entity, Temperature.Trait.WORLD, stack, true);
+        }
+        return temp;
+    }
+
+    private static double measureAllocation(ThreadMXBean threadBean, LivingEntity entity, List<TempModifier> stack)
+    {
+        long threadId = Thread.currentThread().getId();
+        double temp = 0;
+        for (int i = 0; i < WARMUP; i++)
+        {   temp += Temperature.apply(0, entity, Temperature.Trait.WORLD, stack, true);
+        }
+        long start = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++)
+        {   temp += Temperature.apply(0, entity, Temperature.Trait.WORLD, stack, true);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - start;
+        BLACKHOLE += temp;
+        return allocated / (double) ITERATIONS;
+    }
+
+    private static List<TempModifier> createStack(Supplier<TempModifier> factory)
+    {
+        List<TempModifier> stack = new ArrayList<>(STACK_SIZE);
+        for (int i = 0; i < STACK_SIZE; i++)
+        {   stack.add(factory.get());
+        }
+        return stack;
+    }
+
+    /**
+     * Captures a value from the entity on each update, like the built-in modifiers do
+     */
+    private static class PrimitiveModifier extends TempModifier
+    {
+        @Override
+        protected DoubleUnaryOperator calculateOperator(LivingEntity entity, Temperature.Trait trait)
+        {   double offset = entity.getY() * 0.001;
+            return temp -> temp + offset;
+        }
+    }
+
+    /**
+     * The same modifier, written against the legacy boxed function
+     */
+    private static class BoxedModifier extends TempModifier
+    {
+        @Override
+        protected Function<Double, Double> calculate(LivingEntity entity, Temperature.Trait trait)
+        {   double offset = entity.getY() * 0.001;
+            return temp -> temp + offset;
+        }
+    }
+}
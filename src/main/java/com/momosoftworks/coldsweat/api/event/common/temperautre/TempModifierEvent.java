@@ -7,6 +7,7 @@ import net.minecraftforge.eventbus.api.Cancelable;
 import net.minecraftforge.eventbus.api.Event;
 import com.momosoftworks.coldsweat.api.temperature.modifier.TempModifier;
 
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
 
 /**
@@ -90,6 +91,8 @@ public class TempModifierEvent extends Event
     /**
      * Fired when a TempModifier runs the {@code calculate()} method. <br>
      * {@code Pre} and {@code Post} are fired on the {@link MinecraftForge#EVENT_BUS} before/after the calculation respectively. <br>
+     * They are only posted if a listener is registered for them.
+     * Disabled modifiers and modifier immunity are handled by Cold Sweat directly, without these events. <br>
      */
     public static class Calculate extends TempModifierEvent
     {
@@ -123,16 +126,30 @@ public class TempModifierEvent extends Event
         @Cancelable
         public static class Pre extends Calculate
         {
-            private Function<Double, Double> newFunction = temp -> temp;
+            private DoubleUnaryOperator newFunction = DoubleUnaryOperator.identity();
 
-            public Function<Double, Double> getFunction()
+            public DoubleUnaryOperator getOperator()
             {   return newFunction;
             }
 
-            public void setFunction(Function<Double, Double> newFunction)
+            public void setOperator(DoubleUnaryOperator newFunction)
             {   this.newFunction = newFunction;
             }
 
+            /**
+             * Boxed version of {@link #getOperator()}
+             */
+            public Function<Double, Double> getFunction()
+            {   return newFunction::applyAsDouble;
+            }
+
+            /**
+             * Boxed version of {@link #setOperator(DoubleUnaryOperator)}
+             */
+            public void setFunction(Function<Double, Double> newFunction)
+            {   this.newFunction = newFunction::apply;
+            }
+
             public Pre(TempModifier modifier, LivingEntity entity, double temperature, Temperature.Trait trait)
             {   super(modifier, entity, temperature, trait);
             }
@@ -151,20 +168,38 @@ public class TempModifierEvent extends Event
          */
         public static class Post extends Calculate
         {
-            private Function<Double, Double> newFunction;
+            private DoubleUnaryOperator newFunction;
 
-            public Post(TempModifier modifier, LivingEntity entity, double temp, Function<Double, Double> newFunction, Temperature.Trait trait)
+            public Post(TempModifier modifier, LivingEntity entity, double temp, DoubleUnaryOperator newFunction, Temperature.Trait trait)
             {   super(modifier, entity, temp, trait);
                 this.newFunction = newFunction;
             }
 
-            public Function<Double, Double> getFunction()
+            public Post(TempModifier modifier, LivingEntity entity, double temp, Function<Double, Double> newFunction, Temperature.Trait trait)
+            {   this(modifier, entity, temp, (DoubleUnaryOperator) newFunction::apply, trait);
+            }
+
+            public DoubleUnaryOperator getOperator()
             {   return newFunction;
             }
 
-            public void setFunction(Function<Double, Double> newFunction)
+            public void setOperator(DoubleUnaryOperator newFunction)
             {   this.newFunction = newFunction;
             }
+
+            /**
+             * Boxed version of {@link #getOperator()}
+             */
+            public Function<Double, Double> getFunction()
+            {   return newFunction::applyAsDouble;
+            }
+
+            /**
+             * Boxed version of {@link #setOperator(DoubleUnaryOperator)}
+             */
+            public void setFunction(Function<Double, Double> newFunction)
+            {   this.newFunction = newFunction::apply;
+            }
         }
     }
 }
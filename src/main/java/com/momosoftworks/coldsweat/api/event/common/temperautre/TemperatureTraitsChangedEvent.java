@@ -0,0 +1,63 @@
+package com.momosoftworks.coldsweat.api.event.common.temperautre;
+
+import com.momosoftworks.coldsweat.api.util.Temperature;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraftforge.eventbus.api.Event;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fired once at the end of an entity's temperature tick if any of its traits changed by more than the configured threshold.<br>
+ * Covers the same changes as the individual {@link TemperatureChangedEvent}s fired that tick.<br>
+ * <br>
+ * This event is NOT {@link net.minecraftforge.eventbus.api.Cancelable}.
+ */
+public class TemperatureTraitsChangedEvent extends Event
+{
+    private final LivingEntity entity;
+    private final int changedTraits;
+    private final double[] oldValues;
+    private final double[] newValues;
+
+    /**
+     * @param changedTraits Bitmask of the changed traits, by {@link Temperature.Trait#ordinal()}
+     * @param oldValues The values of the traits when they last fired a change, by ordinal
+     * @param newValues The values of the traits as of their last change, by ordinal. Up-to-date for the changed traits
+     */
+    public TemperatureTraitsChangedEvent(LivingEntity entity, int changedTraits, double[] oldValues, double[] newValues)
+    {
+        this.entity = entity;
+        this.changedTraits = changedTraits;
+        this.oldValues = oldValues;
+        this.newValues = newValues;
+    }
+
+    public LivingEntity getEntity()
+    {   return entity;
+    }
+
+    public boolean hasChanged(Temperature.Trait trait)
+    {   return (changedTraits & (1 << trait.ordinal())) != 0;
+    }
+
+    public Set<Temperature.Trait> getChangedTraits()
+    {
+        Set<Temperature.Trait> traits = EnumSet.noneOf(Temperature.Trait.class);
+        for (Temperature.Trait trait : Temperature.Trait.values())
+        {
+            if (this.hasChanged(trait))
+            {   traits.add(trait);
+            }
+        }
+        return traits;
+    }
+
+    public double getOldTemperature(Temperature.Trait trait)
+    {   return oldValues[trait.ordinal()];
+    }
+
+    public double getTemperature(Temperature.Trait trait)
+    {   return newValues[trait.ordinal()];
+    }
+}
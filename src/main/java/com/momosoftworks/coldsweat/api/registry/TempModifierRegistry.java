@@ -7,29 +7,71 @@ import com.momosoftworks.coldsweat.api.temperature.modifier.TempModifier;
 import com.momosoftworks.coldsweat.util.exceptions.RegistryFailureException;
 import com.momosoftworks.coldsweat.util.math.CSMath;
 import com.momosoftworks.coldsweat.util.math.FastBiMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.minecraft.resources.ResourceLocation;
 
 import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Optional;
 import java.util.function.Supplier;
 
+/**
+ * Registry of every TempModifier type, by ID.<br>
+ * The registry is filled by {@link com.momosoftworks.coldsweat.api.event.core.registry.TempModifierRegisterEvent}, then frozen.
+ * Once frozen, each type also has a compact numeric ID, assigned in order of the types' IDs.
+ * Types are looked up by class in constant time.
+ */
 public class TempModifierRegistry
 {
     static FastBiMap<ResourceLocation, TempModifierHolder> TEMP_MODIFIERS = new FastBiMap<>();
+    // Class -> holder, for O(1) key lookups
+    static Reference2ObjectOpenHashMap<Class<?>, TempModifierHolder> HOLDERS_BY_CLASS = new Reference2ObjectOpenHashMap<>();
+    // Built when the registry is frozen
+    static BiMap<ResourceLocation, TempModifierHolder> FROZEN_ENTRIES = null;
+    static TempModifierHolder[] HOLDERS_BY_NUMERIC_ID = new TempModifierHolder[0];
 
     public static BiMap<ResourceLocation, TempModifierHolder> getEntries()
-    {   return ImmutableBiMap.copyOf(TEMP_MODIFIERS);
+    {   return FROZEN_ENTRIES != null ? FROZEN_ENTRIES : ImmutableBiMap.copyOf(TEMP_MODIFIERS);
     }
 
     public static void register(ResourceLocation id, Supplier<TempModifier> supplier)
     {
         TempModifierHolder holder = new TempModifierHolder(supplier, id);
-        if (TEMP_MODIFIERS.containsKey(id) || TEMP_MODIFIERS.values().stream().anyMatch(holder::equals))
+        TempModifierHolder existing = TEMP_MODIFIERS.containsKey(id) ? TEMP_MODIFIERS.get(id) : HOLDERS_BY_CLASS.get(holder.getModifierClass());
+        if (existing != null)
         {
             throw ColdSweat.LOGGER.throwing(new RegistryFailureException(id, "TempModifier", String.format("Found duplicate TempModifier entries: %s (%s) %s (%s)", holder.getModifierClass().getName(), id,
-                                                                           TEMP_MODIFIERS.get(id).getModifierClass().getName(), id), null));
+                                                                           existing.getModifierClass().getName(), existing.getId()), null));
         }
         TEMP_MODIFIERS.put(id, holder);
+        HOLDERS_BY_CLASS.put(holder.getModifierClass(), holder);
+        // Late registrations (i.e. from KubeJS) are appended, so IDs that have already been handed out stay valid
+        if (FROZEN_ENTRIES != null)
+        {   holder.numericId = HOLDERS_BY_NUMERIC_ID.length;
+            HOLDERS_BY_NUMERIC_ID = Arrays.copyOf(HOLDERS_BY_NUMERIC_ID, HOLDERS_BY_NUMERIC_ID.length + 1);
+            HOLDERS_BY_NUMERIC_ID[holder.numericId] = holder;
+            FROZEN_ENTRIES = ImmutableBiMap.copyOf(TEMP_MODIFIERS);
+        }
+    }
+
+    /**
+     * Caches the registry's entries and assigns numeric IDs to every TempModifier type.<br>
+     * Numeric IDs are sorted by the types' IDs, so they only match between two sides that have registered the same types.
+     */
+    public static void freeze()
+    {
+        TempModifierHolder[] holders = TEMP_MODIFIERS.values().toArray(new TempModifierHolder[0]);
+        Arrays.sort(holders, Comparator.comparing(TempModifierHolder::getId));
+        for (int i = 0; i < holders.length; i++)
+        {   holders[i].numericId = i;
+        }
+        HOLDERS_BY_NUMERIC_ID = holders;
+        FROZEN_ENTRIES = ImmutableBiMap.copyOf(TEMP_MODIFIERS);
+    }
+
+    public static boolean isFrozen()
+    {   return FROZEN_ENTRIES != null;
     }
 
     /**
@@ -38,6 +80,9 @@ public class TempModifierRegistry
     public static void flush()
     {
         TEMP_MODIFIERS.clear();
+        HOLDERS_BY_CLASS.clear();
+        HOLDERS_BY_NUMERIC_ID = new TempModifierHolder[0];
+        FROZEN_ENTRIES = null;
     }
 
     /**
@@ -49,20 +94,31 @@ public class TempModifierRegistry
         return Optional.ofNullable(TEMP_MODIFIERS.get(id)).map(TempModifierHolder::get);
     }
 
+    /**
+     * Returns a new instance of the TempModifier with the given numeric ID. See {@link #freeze()}
+     */
+    public static Optional<TempModifier> getValue(int numericId)
+    {
+        return numericId >= 0 && numericId < HOLDERS_BY_NUMERIC_ID.length
+               ? Optional.of(HOLDERS_BY_NUMERIC_ID[numericId].get())
+               : Optional.empty();
+    }
+
     public static ResourceLocation getKey(TempModifier modifier)
     {   return CSMath.getIfNotNull(getHolder(modifier), TempModifierHolder::getId, null);
     }
 
+    /**
+     * @return The numeric ID of the modifier's type, or -1 if it isn't registered or the registry isn't frozen yet
+     */
+    public static int getNumericId(TempModifier modifier)
+    {   TempModifierHolder holder = getHolder(modifier);
+        return holder != null ? holder.getNumericId() : -1;
+    }
+
     @Nullable
     public static TempModifierHolder getHolder(TempModifier modifier)
-    {
-        for (TempModifierHolder holder : TEMP_MODIFIERS.values())
-        {
-            if (holder.getModifierClass() == modifier.getClass())
-            {   return holder;
-            }
-        }
-        return null;
+    {   return HOLDERS_BY_CLASS.get(modifier.getClass());
     }
 
     public static class TempModifierHolder
@@ -70,6 +126,7 @@ public class TempModifierRegistry
         private final Supplier<TempModifier> supplier;
         private final Class<? extends TempModifier> clazz;
         private final ResourceLocation id;
+        private int numericId = -1;
 
         public TempModifierHolder(Supplier<TempModifier> supplier, ResourceLocation id)
         {   this.supplier = supplier;
@@ -89,6 +146,10 @@ public class TempModifierRegistry
         {   return id;
         }
 
+        public int getNumericId()
+        {   return numericId;
+        }
+
         @Override
         public boolean equals(Object obj)
         {
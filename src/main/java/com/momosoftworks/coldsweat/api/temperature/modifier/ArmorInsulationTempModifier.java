@@ -4,7 +4,7 @@ import com.momosoftworks.coldsweat.api.util.Temperature;
 import com.momosoftworks.coldsweat.config.ConfigSettings;
 import net.minecraft.world.entity.LivingEntity;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class ArmorInsulationTempModifier extends TempModifier
 {
@@ -20,19 +20,21 @@ public class ArmorInsulationTempModifier extends TempModifier
     }
 
     @Override
-    public Function<Double, Double> calculate(LivingEntity entity, Temperature.Trait trait)
+    public DoubleUnaryOperator calculateOperator(LivingEntity entity, Temperature.Trait trait)
     {
-        double cold = this.getNBT().getDouble("cold");
-        double hot = this.getNBT().getDouble("hot");
         double insulationStrength = ConfigSettings.INSULATION_STRENGTH.get();
+        // The multiplier only depends on which way the temperature leans, so both are worked out up-front
+        double coldMultiplier = getMultiplier(this.getNBT().getDouble("cold") * insulationStrength);
+        double hotMultiplier = getMultiplier(this.getNBT().getDouble("hot") * insulationStrength);
 
-        return temp ->
-        {
-            double insulation = (temp > 0 ? hot : cold) * insulationStrength;
-            if (insulation >= 0)
-            {   return temp * Math.pow(0.1, insulation / 40);
-            }
-            else return temp * (-insulation / 20 + 1);
-        };
+        return temp -> temp * (temp > 0 ? hotMultiplier : coldMultiplier);
+    }
+
+    private static double getMultiplier(double insulation)
+    {
+        if (insulation >= 0)
+        {   return Math.pow(0.1, insulation / 40);
+        }
+        else return -insulation / 20 + 1;
     }
 }
\ No newline at end of file
@@ -18,7 +18,7 @@ import net.minecraft.world.level.dimension.DimensionType;
 import net.minecraft.world.level.levelgen.structure.Structure;
 import net.minecraftforge.common.Tags;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class BiomeTempModifier extends TempModifier
 {
@@ -32,7 +32,7 @@ public class BiomeTempModifier extends TempModifier
     }
 
     @Override
-    public Function<Double, Double> calculate(LivingEntity entity, Temperature.Trait trait)
+    public DoubleUnaryOperator calculateOperator(LivingEntity entity, Temperature.Trait trait)
     {
         int samples = this.getNBT().getInt("Samples");
         try
@@ -101,7 +101,7 @@ public class BiomeTempModifier extends TempModifier
             return temp -> temp + finalWorldTemp;
         }
         catch (Exception e)
-        {   return temp -> temp;
+        {   return DoubleUnaryOperator.identity();
         }
     }
 
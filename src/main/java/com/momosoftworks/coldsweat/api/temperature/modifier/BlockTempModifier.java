@@ -20,7 +20,7 @@ import net.minecraft.world.phys.Vec3;
 import oshi.util.tuples.Triplet;
 
 import java.util.*;
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class BlockTempModifier extends TempModifier
 {
@@ -36,7 +36,7 @@ public class BlockTempModifier extends TempModifier
     List<Triplet<BlockPos, BlockTemp, Double>> triggers = new ArrayList<>(128);
 
     @Override
-    public Function<Double, Double> calculate(LivingEntity entity, Temperature.Trait trait)
+    public DoubleUnaryOperator calculateOperator(LivingEntity entity, Temperature.Trait trait)
     {
         blockTempEffects.clear();
         stateCache.clear();
@@ -143,16 +143,32 @@ public class BlockTempModifier extends TempModifier
         {   chunks.remove(chunks.keySet().iterator().next());
         }
 
+        if (blockTempEffects.isEmpty()) return DoubleUnaryOperator.identity();
+
+        // Copy the effects out of the map, which is reused by the next calculation
+        int effectCount = blockTempEffects.size();
+        double[] mins = new double[effectCount];
+        double[] maxes = new double[effectCount];
+        double[] effects = new double[effectCount];
+        int i = 0;
+        for (Map.Entry<BlockTemp, Double> effect : blockTempEffects.entrySet())
+        {
+            BlockTemp be = effect.getKey();
+            mins[i] = be.minTemperature();
+            maxes[i] = be.maxTemperature();
+            effects[i] = effect.getValue();
+            i++;
+        }
+
         // Add the effects of all the blocks together and return the result
         return temp ->
         {
-            for (Map.Entry<BlockTemp, Double> effect : blockTempEffects.entrySet())
+            for (int j = 0; j < effectCount; j++)
             {
-                BlockTemp be = effect.getKey();
-                double min = be.minTemperature();
-                double max = be.maxTemperature();
+                double min = mins[j];
+                double max = maxes[j];
                 if (!CSMath.betweenInclusive(temp, min, max)) continue;
-                temp = CSMath.clamp(temp + effect.getValue(), min, max);
+                temp = CSMath.clamp(temp + effects[j], min, max);
             }
             return temp;
         };
@@ -10,7 +10,7 @@ import net.minecraft.world.level.Level;
 import net.minecraft.world.level.biome.Biome;
 import net.minecraftforge.common.Tags;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class DepthBiomeTempModifier extends TempModifier
 {
@@ -23,7 +23,7 @@ public class DepthBiomeTempModifier extends TempModifier
     }
 
     @Override
-    protected Function<Double, Double> calculate(LivingEntity entity, Temperature.Trait trait)
+    protected DoubleUnaryOperator calculateOperator(LivingEntity entity, Temperature.Trait trait)
     {
         int sampleRoot = this.getNBT().getInt("SampleRoot");
         Level level = entity.level();
@@ -49,7 +49,7 @@ public class DepthBiomeTempModifier extends TempModifier
             }
         }
         if (caveBiomeCount == 0)
-        {   return temp -> temp;
+        {   return DoubleUnaryOperator.identity();
         }
 
         int finalCaveBiomeCount = caveBiomeCount;
@@ -16,7 +16,7 @@ import net.minecraft.world.level.LightLayer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class ElevationTempModifier extends TempModifier
 {
@@ -29,9 +29,9 @@ public class ElevationTempModifier extends TempModifier
     }
 
     @Override
-    public Function<Double, Double> calculate(LivingEntity entity, Temperature.Trait trait)
+    public DoubleUnaryOperator calculateOperator(LivingEntity entity, Temperature.Trait trait)
     {
-        if (entity.level().dimensionType().hasCeiling()) return temp -> temp;
+        if (entity.level().dimensionType().hasCeiling()) return DoubleUnaryOperator.identity();
 
         Level level = entity.level();
 
@@ -72,24 +72,36 @@ public class ElevationTempModifier extends TempModifier
             }
         }
 
-        return temp ->
+        if (depthRegions.isEmpty()) return DoubleUnaryOperator.identity();
+
+        // Flatten the samples so applying the function doesn't allocate
+        int sampleCount = depthRegions.size();
+        BlockPos[] positions = new BlockPos[sampleCount];
+        DepthTempData.TempRegion[] regions = new DepthTempData.TempRegion[sampleCount];
+        double[] weights = new double[sampleCount];
+        double weightSum = 0;
+        int i = 0;
+        for (Map.Entry<BlockPos, Pair<DepthTempData.TempRegion, Double>> entry : depthRegions.entrySet())
         {
-            List<Pair<Double, Double>> depthTemps = new ArrayList<>();
+            positions[i] = entry.getKey();
+            regions[i] = entry.getValue().getFirst();
+            weights[i] = 1 / (entry.getValue().getSecond() / 10 + 1);
+            weightSum += weights[i];
+            i++;
+        }
+        double weightDivisor = Math.max(1, weightSum);
 
-            for (Map.Entry<BlockPos, Pair<DepthTempData.TempRegion, Double>> entry : depthRegions.entrySet())
+        return temp ->
+        {
+            // Calculate the weighted average of the depth temperatures
+            double sum = 0;
+            for (int j = 0; j < sampleCount; j++)
             {
-                BlockPos pos = entry.getKey();
-                DepthTempData.TempRegion region = entry.getValue().getFirst();
-                double distance = entry.getValue().getSecond();
-
-                double depthTemp = CSMath.getIfNotNull(region, reg -> reg.getTemperature(temp, pos, level), temp);
-                double weight = 1 / (distance / 10 + 1);
-                // Add the weighted temperature to the list
-                depthTemps.add(new Pair<>(depthTemp, weight));
+                DepthTempData.TempRegion region = regions[j];
+                double depthTemp = region != null ? region.getTemperature(temp, positions[j], level) : temp;
+                sum += depthTemp * weights[j];
             }
-            if (depthTemps.isEmpty()) return temp;
-            // Calculate the weighted average of the depth temperatures
-            return CSMath.weightedAverage(depthTemps);
+            return sum / weightDivisor;
         };
     }
 }
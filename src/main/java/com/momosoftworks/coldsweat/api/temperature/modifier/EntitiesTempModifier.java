@@ -17,12 +17,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class EntitiesTempModifier extends TempModifier
 {
     @Override
-    protected Function<Double, Double> calculate(LivingEntity affectedEnt, Temperature.Trait trait)
+    protected DoubleUnaryOperator calculateOperator(LivingEntity affectedEnt, Temperature.Trait trait)
     {
         Level level = affectedEnt.level();
         // Search for entities in an 8-block radius
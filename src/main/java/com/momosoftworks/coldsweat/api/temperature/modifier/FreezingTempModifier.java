@@ -3,7 +3,7 @@ package com.momosoftworks.coldsweat.api.temperature.modifier;
 import com.momosoftworks.coldsweat.api.util.Temperature;
 import net.minecraft.world.entity.LivingEntity;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class FreezingTempModifier extends TempModifier
 {
@@ -18,8 +18,9 @@ public class FreezingTempModifier extends TempModifier
     }
 
     @Override
-    public Function<Double, Double> calculate(LivingEntity entity, Temperature.Trait trait)
+    public DoubleUnaryOperator calculateOperator(LivingEntity entity, Temperature.Trait trait)
     {
-        return temp -> temp - this.getNBT().getDouble("chill");
+        double chill = this.getNBT().getDouble("chill");
+        return temp -> temp - chill;
     }
 }
@@ -3,7 +3,7 @@ package com.momosoftworks.coldsweat.api.temperature.modifier;
 import com.momosoftworks.coldsweat.api.util.Temperature;
 import net.minecraft.world.entity.LivingEntity;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class InventoryItemsTempModifier extends TempModifier
 {
@@ -16,8 +16,9 @@ public class InventoryItemsTempModifier extends TempModifier
     }
 
     @Override
-    protected Function<Double, Double> calculate(LivingEntity entity, Temperature.Trait trait)
+    protected DoubleUnaryOperator calculateOperator(LivingEntity entity, Temperature.Trait trait)
     {
-        return temp -> temp + this.getNBT().getDouble("Effect");
+        double effect = this.getNBT().getDouble("Effect");
+        return temp -> temp + effect;
     }
 }
@@ -5,7 +5,7 @@ import com.momosoftworks.coldsweat.config.ConfigSettings;
 import com.momosoftworks.coldsweat.util.math.CSMath;
 import net.minecraft.world.entity.LivingEntity;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class MountTempModifier extends TempModifier
 {
@@ -19,16 +19,12 @@ public class MountTempModifier extends TempModifier
     }
 
     @Override
-    public Function<Double, Double> calculate(LivingEntity entity, Temperature.Trait trait)
+    public DoubleUnaryOperator calculateOperator(LivingEntity entity, Temperature.Trait trait)
     {
         double insulationStrength = ConfigSettings.INSULATION_STRENGTH.get();
+        double heatInsulation = this.getNBT().getDouble("HeatInsulation") * insulationStrength;
+        double coldInsulation = this.getNBT().getDouble("ColdInsulation") * insulationStrength;
 
-        return temp ->
-        {
-            double insulation = temp > 0
-                                ? this.getNBT().getDouble("HeatInsulation")
-                                : this.getNBT().getDouble("ColdInsulation");
-            return CSMath.blend(temp, 0, insulation * insulationStrength, 0, 1);
-        };
+        return temp -> CSMath.blend(temp, 0, temp > 0 ? heatInsulation : coldInsulation, 0, 1);
     }
 }
\ No newline at end of file
@@ -4,19 +4,20 @@ import com.momosoftworks.coldsweat.api.util.Temperature;
 import com.momosoftworks.coldsweat.config.ConfigSettings;
 import net.minecraft.world.entity.LivingEntity;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class SoulLampTempModifier extends TempModifier
 {
     @Override
-    public Function<Double, Double> calculate(LivingEntity entity, Temperature.Trait trait)
+    public DoubleUnaryOperator calculateOperator(LivingEntity entity, Temperature.Trait trait)
     {
         double almostMax = Temperature.get(entity, Temperature.Trait.BURNING_POINT) * 0.99;
+        double multiplier = 1 - ConfigSettings.SOULSPRING_LAMP_STRENGTH.get();
         return temp ->
         {
             if (temp < almostMax) return temp;
 
-            return Math.max(temp * (1 - ConfigSettings.SOULSPRING_LAMP_STRENGTH.get()), almostMax);
+            return Math.max(temp * multiplier, almostMax);
         };
     }
 }
@@ -5,7 +5,7 @@ import com.momosoftworks.coldsweat.util.world.WorldHelper;
 import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.world.entity.LivingEntity;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class SoulSproutTempModifier extends FoodTempModifier
 {
@@ -18,13 +18,13 @@ public class SoulSproutTempModifier extends FoodTempModifier
     }
 
     @Override
-    public Function<Double, Double> calculate(LivingEntity entity, Temperature.Trait trait)
+    public DoubleUnaryOperator calculateOperator(LivingEntity entity, Temperature.Trait trait)
     {
         if (Math.random() < 0.3 && entity.tickCount % 5 == 0 && entity.level().isClientSide)
         {
             WorldHelper.spawnParticleBatch(entity.level(), ParticleTypes.SOUL, entity.getX(), entity.getY() + entity.getBbHeight() / 2, entity.getZ(),
                                            entity.getBbWidth() / 2, entity.getBbHeight() / 2, entity.getBbWidth() / 2, 1, 0.02);
         }
-        return super.calculate(entity, trait);
+        return super.calculateOperator(entity, trait);
     }
 }
@@ -4,11 +4,15 @@ import com.momosoftworks.coldsweat.api.event.common.temperautre.TempModifierEven
 import com.momosoftworks.coldsweat.api.event.core.registry.TempModifierRegisterEvent;
 import com.momosoftworks.coldsweat.api.registry.TempModifierRegistry;
 import com.momosoftworks.coldsweat.api.util.Temperature;
+import com.momosoftworks.coldsweat.common.capability.handler.EntityTempManager;
 import com.momosoftworks.coldsweat.core.init.TempModifierInit;
+import com.momosoftworks.coldsweat.util.EventListenerCheck;
+import it.unimi.dsi.fastutil.HashCommon;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraftforge.common.MinecraftForge;
 
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
 
 /**
@@ -26,11 +30,30 @@ public abstract class TempModifier
     private int expireTicks = -1;
     private int ticksExisted = 0;
     private int tickRate = 1;
+    private int tickPhase = -1;
     private double lastInput = 0;
     private double lastOutput = 0;
-    private Function<Double, Double> function = temp -> temp;
+    private DoubleUnaryOperator function = DoubleUnaryOperator.identity();
     private boolean changed = false;
 
+    private static final EventListenerCheck PRE_LISTENERS = new EventListenerCheck(TempModifierEvent.Calculate.Pre.class);
+    private static final EventListenerCheck POST_LISTENERS = new EventListenerCheck(TempModifierEvent.Calculate.Post.class);
+
+    // Whether each TempModifier class implements the boxed calculate() method instead of calculateOperator()
+    private static final ClassValue<Boolean> USES_BOXED_FUNCTION = new ClassValue<>()
+    {
+        @Override
+        protected Boolean computeValue(Class<?> type)
+        {
+            for (Class<?> clazz = type; clazz != TempModifier.class; clazz = clazz.getSuperclass())
+            {
+                if (declaresCalculate(clazz, "calculateOperator")) return false;
+                if (declaresCalculate(clazz, "calculate")) return true;
+            }
+            return false;
+        }
+    };
+
     /**
      * Default constructor (REQUIRED for proper registration).<br>
      */
@@ -40,13 +63,41 @@ public abstract class TempModifier
      * Determines what the provided temperature would be, given the player it is being applied to.<br>
      * This is basically a simple in-out system. It is given a temperature, and returns a new temperature based on the PlayerEntity.<br>
      * <br>
+     * TempModifiers should override {@link #calculateOperator(LivingEntity, Temperature.Trait)} instead,
+     * which doesn't box the temperature every time it is applied.<br>
+     * <br>
+     * @param entity the entity that is being affected by the modifier.<br>
+     * @return the new temperature.<br>
+     */
+    protected Function<Double, Double> calculate(LivingEntity entity, Temperature.Trait trait)
+    {   DoubleUnaryOperator operator = this.calculateOperator(entity, trait);
+        return operator::applyAsDouble;
+    }
+
+    /**
+     * Determines what the provided temperature would be, given the player it is being applied to.<br>
+     * The returned function is applied every tick until this is called again (see {@link #tickRate(int)}).<br>
+     * <br>
      * @param entity the entity that is being affected by the modifier.<br>
      * @return the new temperature.<br>
      */
-    protected abstract Function<Double, Double> calculate(LivingEntity entity, Temperature.Trait trait);
+    protected DoubleUnaryOperator calculateOperator(LivingEntity entity, Temperature.Trait trait)
+    {   return DoubleUnaryOperator.identity();
+    }
+
+    private static boolean declaresCalculate(Class<?> clazz, String name)
+    {
+        try
+        {   clazz.getDeclaredMethod(name, LivingEntity.class, Temperature.Trait.class);
+            return true;
+        }
+        catch (NoSuchMethodException e)
+        {   return false;
+        }
+    }
 
     /**
-     * Posts this TempModifier's {@link #calculate(LivingEntity, Temperature.Trait)} to the Forge event bus.<br>
+     * Calculates this TempModifier's function, and posts the {@link TempModifierEvent.Calculate} events if anything listens to them.<br>
      * Returns the stored value if this TempModifier has a tickRate set, and it is not the right tick.<br>
      * <br>
      * @param temp the Temperature being fed into the {@link #calculate(LivingEntity, Temperature.Trait)} method.
@@ -54,20 +105,44 @@ public abstract class TempModifier
      */
     public final double update(double temp, LivingEntity entity, Temperature.Trait trait)
     {
-        TempModifierEvent.Calculate.Pre pre = new TempModifierEvent.Calculate.Pre(this, entity, temp, trait);
-        MinecraftForge.EVENT_BUS.post(pre);
-        if (pre.isCanceled())
+        if (EntityTempManager.isModifierDisabled(this))
         {
-            this.function = pre.getFunction();
-            return this.apply(pre.getTemperature());
+            this.expires(0);
+            this.function = DoubleUnaryOperator.identity();
+            return this.apply(temp);
         }
 
-        TempModifierEvent.Calculate.Post post = new TempModifierEvent.Calculate.Post(this, entity, pre.getTemperature(), this.calculate(entity, trait), trait);
-        MinecraftForge.EVENT_BUS.post(post);
+        // The events are only posted if something listens to them
+        if (PRE_LISTENERS.hasListeners())
+        {
+            TempModifierEvent.Calculate.Pre pre = new TempModifierEvent.Calculate.Pre(this, entity, temp, trait);
+            MinecraftForge.EVENT_BUS.post(pre);
+            if (pre.isCanceled())
+            {
+                this.function = pre.getOperator();
+                return this.apply(pre.getTemperature());
+            }
+            temp = pre.getTemperature();
+        }
+
+        DoubleUnaryOperator operator;
+        if (USES_BOXED_FUNCTION.get(this.getClass()))
+        {   Function<Double, Double> boxed = this.calculate(entity, trait);
+            operator = boxed::apply;
+        }
+        else operator = this.calculateOperator(entity, trait);
+        operator = EntityTempManager.applyModifierImmunity(this, entity, trait, operator);
 
-        this.function = post.getFunction();
+        if (POST_LISTENERS.hasListeners())
+        {
+            TempModifierEvent.Calculate.Post post = new TempModifierEvent.Calculate.Post(this, entity, temp, operator, trait);
+            MinecraftForge.EVENT_BUS.post(post);
+            operator = post.getOperator();
+            temp = post.getTemperature();
+        }
 
-        return this.apply(post.getTemperature());
+        this.function = operator;
+        return this.apply(temp);
     }
 
     /**
@@ -77,7 +152,7 @@ public abstract class TempModifier
     public double apply(double temp)
     {
         lastInput = temp;
-        return lastOutput = function.apply(temp);
+        return lastOutput = function.applyAsDouble(temp);
     }
 
     /**
@@ -120,6 +195,19 @@ public abstract class TempModifier
     {   return tickRate;
     }
 
+    /**
+     * The offset of this modifier's update ticks from the entity's tick count, assigned when it is first applied to the entity.<br>
+     * Spreads the updates of modifiers with the same tick rate across ticks, instead of every entity updating them on the same tick.
+     */
+    public final int getTickPhase(LivingEntity entity)
+    {
+        if (tickPhase < 0)
+        {   // Kept small so adding it to the entity's tick count doesn't overflow
+            tickPhase = HashCommon.mix(entity.getUUID().hashCode() * 31 + System.identityHashCode(this)) & 0xFFFFF;
+        }
+        return tickPhase;
+    }
+
     /**
      * @return The Temperature this TempModifier was last given
      */
@@ -5,7 +5,7 @@ import com.momosoftworks.coldsweat.config.ConfigSettings;
 import com.momosoftworks.coldsweat.util.math.CSMath;
 import net.minecraft.world.entity.LivingEntity;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public abstract class ThermalSourceTempModifier extends TempModifier
 {
@@ -26,7 +26,7 @@ public abstract class ThermalSourceTempModifier extends TempModifier
     }
 
     @Override
-    public Function<Double, Double> calculate(LivingEntity entity, Temperature.Trait trait)
+    public DoubleUnaryOperator calculateOperator(LivingEntity entity, Temperature.Trait trait)
     {
         double min = ConfigSettings.MIN_TEMP.get();
         double max = ConfigSettings.MAX_TEMP.get();
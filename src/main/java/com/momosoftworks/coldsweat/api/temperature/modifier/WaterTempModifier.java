@@ -7,7 +7,7 @@ import com.momosoftworks.coldsweat.util.world.WorldHelper;
 import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.world.entity.LivingEntity;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class WaterTempModifier extends TempModifier
 {
@@ -37,7 +37,7 @@ public class WaterTempModifier extends TempModifier
     }
 
     @Override
-    public Function<Double, Double> calculate(LivingEntity entity, Temperature.Trait trait)
+    public DoubleUnaryOperator calculateOperator(LivingEntity entity, Temperature.Trait trait)
     {
         double worldTemp = Temperature.get(entity, Temperature.Trait.WORLD);
         double minTemp = ConfigSettings.MIN_TEMP.get();
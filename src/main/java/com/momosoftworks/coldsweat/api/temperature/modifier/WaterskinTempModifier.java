@@ -3,7 +3,7 @@ package com.momosoftworks.coldsweat.api.temperature.modifier;
 import com.momosoftworks.coldsweat.api.util.Temperature;
 import net.minecraft.world.entity.LivingEntity;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class WaterskinTempModifier extends TempModifier
 {
@@ -16,7 +16,8 @@ public class WaterskinTempModifier extends TempModifier
     }
 
     @Override
-    public Function<Double, Double>  calculate(LivingEntity entity, Temperature.Trait trait)
-    {   return temp -> temp + this.getNBT().getDouble("Temperature");
+    public DoubleUnaryOperator calculateOperator(LivingEntity entity, Temperature.Trait trait)
+    {   double temperature = this.getNBT().getDouble("Temperature");
+        return temp -> temp + temperature;
     }
 }
\ No newline at end of file
@@ -4,7 +4,7 @@ import com.momosoftworks.coldsweat.api.temperature.modifier.TempModifier;
 import com.momosoftworks.coldsweat.api.util.Temperature;
 import net.minecraft.world.entity.LivingEntity;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class CuriosTempModifier extends TempModifier
 {
@@ -20,14 +20,12 @@ public class CuriosTempModifier extends TempModifier
     }
 
     @Override
-    public Function<Double, Double> calculate(LivingEntity entity, Temperature.Trait trait)
+    public DoubleUnaryOperator calculateOperator(LivingEntity entity, Temperature.Trait trait)
     {
         double cold = this.getNBT().getDouble("cold");
         double heat = this.getNBT().getDouble("heat");
-        return temp ->
-        {
-            double insulation = temp > 0 ? heat : cold;
-            return temp * (insulation >= 0 ? Math.pow(0.1, insulation / 60) : -(insulation / 20) + 1);
-        };
+        double coldMultiplier = cold >= 0 ? Math.pow(0.1, cold / 60) : -(cold / 20) + 1;
+        double heatMultiplier = heat >= 0 ? Math.pow(0.1, heat / 60) : -(heat / 20) + 1;
+        return temp -> temp * (temp > 0 ? heatMultiplier : coldMultiplier);
     }
 }
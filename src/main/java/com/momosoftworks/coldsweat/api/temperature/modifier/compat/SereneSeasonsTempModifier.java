@@ -11,7 +11,7 @@ import sereneseasons.api.season.ISeasonState;
 import sereneseasons.api.season.SeasonHelper;
 import sereneseasons.init.ModConfig;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 /**
  * Special TempModifier class for Serene Seasons
@@ -21,7 +21,7 @@ public class SereneSeasonsTempModifier extends TempModifier
     public SereneSeasonsTempModifier() {}
 
     @Override
-    public Function<Double, Double> calculate(LivingEntity entity, Temperature.Trait trait)
+    public DoubleUnaryOperator calculateOperator(LivingEntity entity, Temperature.Trait trait)
     {
         if (ModConfig.seasons.whitelistedDimensions.contains(entity.level().dimension().location().toString()))
         {
@@ -53,9 +53,10 @@ public class SereneSeasonsTempModifier extends TempModifier
             double startValue = startEndTemps.getFirst();
             double endValue = startEndTemps.getSecond();
 
-            return temp -> temp + (float) CSMath.blend(startValue, endValue, season.getDay() % (season.getSubSeasonDuration() / season.getDayDuration()), 0, 8);
+            double seasonTemp = (float) CSMath.blend(startValue, endValue, season.getDay() % (season.getSubSeasonDuration() / season.getDayDuration()), 0, 8);
+            return temp -> temp + seasonTemp;
         }
 
-        return temp -> temp;
+        return DoubleUnaryOperator.identity();
     }
 }
@@ -11,7 +11,7 @@ import weather2.weathersystem.storm.StormObject;
 import weather2.weathersystem.storm.WeatherObject;
 import weather2.weathersystem.storm.WeatherObjectParticleStorm;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 /**
  * Special TempModifier class for Weather 2
@@ -21,7 +21,7 @@ public class StormTempModifier extends TempModifier
     public StormTempModifier() {}
 
     @Override
-    protected Function<Double, Double> calculate(LivingEntity entity, Temperature.Trait trait)
+    protected DoubleUnaryOperator calculateOperator(LivingEntity entity, Temperature.Trait trait)
     {
         if (!entity.level().isClientSide())
         {
@@ -54,8 +54,9 @@ public class StormTempModifier extends TempModifier
             else
             {   stormTemp = 0;
             }
-            return temp -> temp - stormTemp - windSpeed / 5;
+            double totalTemp = stormTemp + windSpeed / 5;
+            return temp -> temp - totalTemp;
         }
-        return temp -> temp;
+        return DoubleUnaryOperator.identity();
     }
 }
@@ -14,7 +14,7 @@ import org.valkyrienskies.mod.common.VSGameUtilsKt;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 public class ValkShipBlockTempModifier extends BlockTempModifier
 {
@@ -25,9 +25,9 @@ public class ValkShipBlockTempModifier extends BlockTempModifier
     }
 
     @Override
-    public Function<Double, Double> calculate(LivingEntity entity, Temperature.Trait trait)
+    public DoubleUnaryOperator calculateOperator(LivingEntity entity, Temperature.Trait trait)
     {
-        List<Function<Double, Double>> shipModifiers = new ArrayList<>();
+        List<DoubleUnaryOperator> shipModifiers = new ArrayList<>();
 
         Level level = entity.level();
 
@@ -36,12 +36,12 @@ public class ValkShipBlockTempModifier extends BlockTempModifier
             LivingEntity dummyPlayer = new ArmorStand(EntityType.ARMOR_STAND, level);
             Vec3 translatedPos = CompatManager.Valkyrien.translateToShipCoords(entity.position(), ship).multiply(1, 1, 1);
             dummyPlayer.setPos(translatedPos.x, translatedPos.y, translatedPos.z);
-            shipModifiers.add(super.calculate(dummyPlayer, trait));
+            shipModifiers.add(super.calculateOperator(dummyPlayer, trait));
         }
         return (temp) ->
         {
             for (int i = 0; i < shipModifiers.size(); i++)
-            {   temp = shipModifiers.get(i).apply(temp);
+            {   temp = shipModifiers.get(i).applyAsDouble(temp);
             }
             return temp;
         };
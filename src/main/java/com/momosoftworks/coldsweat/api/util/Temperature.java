@@ -7,7 +7,6 @@ import com.momosoftworks.coldsweat.api.event.common.temperautre.TemperatureChang
 import com.momosoftworks.coldsweat.api.temperature.modifier.TempModifier;
 import com.momosoftworks.coldsweat.common.capability.handler.EntityTempManager;
 import com.momosoftworks.coldsweat.common.capability.temperature.ITemperatureCap;
-import com.momosoftworks.coldsweat.common.capability.temperature.PlayerTempCap;
 import com.momosoftworks.coldsweat.config.ConfigSettings;
 import com.momosoftworks.coldsweat.core.network.ColdSweatPacketHandler;
 import com.momosoftworks.coldsweat.core.network.message.SyncTempModifiersMessage;
@@ -113,23 +112,24 @@ public class Temperature
     public static double apply(double currentTemp, LivingEntity entity, Trait trait, boolean ignoreTickMultiplier, TempModifier... modifiers)
     {
         double temp2 = currentTemp;
+        double tickRateMultiplier = ignoreTickMultiplier ? 1 : ConfigSettings.MODIFIER_TICK_RATE.get();
         for (TempModifier modifier : modifiers)
-        {
-            if (modifier == null) continue;
-
-            int tickRate = ignoreTickMultiplier
-                           ? modifier.getTickRate()
-                           : (int) (modifier.getTickRate() / ConfigSettings.MODIFIER_TICK_RATE.get());
-
-            double newTemp = entity.tickCount % tickRate == 0 || modifier.getTicksExisted() == 0 || entity.tickCount <= 1
-                    ? modifier.update(temp2, entity, trait)
-                    : modifier.apply(temp2);
-            if (!Double.isNaN(newTemp))
-            {   temp2 = newTemp;
-            }
+        {   temp2 = applyModifier(temp2, entity, trait, tickRateMultiplier, modifier);
         }
         return temp2;
     }
+
+    private static double applyModifier(double temp, LivingEntity entity, Trait trait, double tickRateMultiplier, TempModifier modifier)
+    {
+        if (modifier == null) return temp;
+
+        int tickRate = (int) (modifier.getTickRate() / tickRateMultiplier);
+
+        double newTemp = (entity.tickCount + modifier.getTickPhase(entity)) % tickRate == 0 || modifier.getTicksExisted() == 0 || entity.tickCount <= 1
+                ? modifier.update(temp, entity, trait)
+                : modifier.apply(temp);
+        return Double.isNaN(newTemp) ? temp : newTemp;
+    }
     public static double apply(double currentTemp, LivingEntity entity, Trait trait, TempModifier... modifiers)
     {   return apply(currentTemp, entity, trait, false, modifiers);
     }
@@ -140,10 +140,21 @@ public class Temperature
      * @param modifiers the list of modifiers being applied to the player's temperature
      */
     public static double apply(double temp, LivingEntity entity, Trait trait, Collection<TempModifier> modifiers, boolean ignoreTickMultiplier)
-    {   return apply(temp, entity, trait, ignoreTickMultiplier, modifiers.toArray(new TempModifier[0]));
+    {
+        double tickRateMultiplier = ignoreTickMultiplier ? 1 : ConfigSettings.MODIFIER_TICK_RATE.get();
+        if (modifiers instanceof List<TempModifier> list && list instanceof RandomAccess)
+        {
+            for (int i = 0; i < list.size(); i++)
+            {   temp = applyModifier(temp, entity, trait, tickRateMultiplier, list.get(i));
+            }
+        }
+        else for (TempModifier modifier : modifiers)
+        {   temp = applyModifier(temp, entity, trait, tickRateMultiplier, modifier);
+        }
+        return temp;
     }
     public static double apply(double temp, LivingEntity entity, Trait trait, Collection<TempModifier> modifiers)
-    {   return apply(temp, entity, trait, false, modifiers.toArray(new TempModifier[0]));
+    {   return apply(temp, entity, trait, modifiers, false);
     }
 
     /**
@@ -167,11 +178,12 @@ public class Temperature
      * @return The first modifier of the given class that is applied to the player.
      */
     public static <T extends TempModifier> Optional<T> getModifier(LivingEntity entity, Trait trait, Class<T> modClass)
-    {   return getModifier(EntityTempManager.getTemperatureCap(entity).orElse(new PlayerTempCap()), trait, modClass);
+    {   ITemperatureCap cap = EntityTempManager.getTemperatureCap(entity).orElse(null);
+        return cap != null ? getModifier(cap, trait, modClass) : Optional.empty();
     }
 
     public static <T extends TempModifier> Optional<T> getModifier(ITemperatureCap cap, Trait trait, Class<T> modClass)
-    {   return (Optional<T>) cap.getModifiers(trait).stream().filter(modClass::isInstance).findFirst();
+    {   return Optional.ofNullable(cap.getModifier(trait, modClass));
     }
 
     /**
@@ -180,7 +192,10 @@ public class Temperature
     @Nullable
     public static TempModifier getModifier(LivingEntity entity, Trait trait, Predicate<TempModifier> condition)
     {
-        for (TempModifier modifier : EntityTempManager.getTemperatureCap(entity).orElse(new PlayerTempCap()).getModifiers(trait))
+        ITemperatureCap cap = EntityTempManager.getTemperatureCap(entity).orElse(null);
+        if (cap == null) return null;
+
+        for (TempModifier modifier : cap.getModifiers(trait))
         {
             if (condition.test(modifier))
             {   return modifier;
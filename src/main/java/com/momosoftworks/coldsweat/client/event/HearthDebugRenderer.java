@@ -1,28 +1,26 @@
 package com.momosoftworks.coldsweat.client.event;
 
-import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.blaze3d.vertex.VertexConsumer;
 import com.mojang.datafixers.util.Pair;
+import com.momosoftworks.coldsweat.client.renderer.HearthDebugMesh;
 import com.momosoftworks.coldsweat.common.blockentity.HearthBlockEntity;
 import com.momosoftworks.coldsweat.common.event.HearthSaveDataHandler;
 import com.momosoftworks.coldsweat.config.ConfigSettings;
 import com.momosoftworks.coldsweat.util.math.CSMath;
+import com.momosoftworks.coldsweat.util.world.ThermalSourceIndex;
 import com.momosoftworks.coldsweat.util.world.WorldHelper;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.GameRenderer;
-import net.minecraft.client.renderer.LevelRenderer;
 import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.client.renderer.RenderType;
 import net.minecraft.client.renderer.culling.Frustum;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
 import net.minecraft.world.entity.player.Player;
-import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
 import net.minecraftforge.api.distmarker.Dist;
@@ -31,28 +29,42 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 import org.joml.Matrix3f;
 import org.joml.Matrix4f;
-import org.joml.Vector3f;
-import org.joml.Vector4f;
 
 import java.util.*;
-import java.util.function.BiConsumer;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Mod.EventBusSubscriber(Dist.CLIENT)
 public class HearthDebugRenderer
 {
-    public static Map<BlockPos, Map<BlockPos, Collection<Direction>>> HEARTH_LOCATIONS = new HashMap<>();
+    public static Map<BlockPos, HearthDebugMesh> HEARTH_LOCATIONS = new HashMap<>();
+    // Hearths whose mesh is rebuilt the next time the debug view is rendered
+    private static final Set<BlockPos> DIRTY_MESHES = new HashSet<>();
+    private static boolean WAS_RENDERING = false;
+
+    private static boolean isEnabled()
+    {   return Minecraft.getInstance().options.renderDebug && ConfigSettings.HEARTH_DEBUG.get();
+    }
 
     @SubscribeEvent
     public static void onLevelRendered(RenderLevelStageEvent event)
     {
-        if (event.getStage() == RenderLevelStageEvent.Stage.AFTER_PARTICLES
-        && Minecraft.getInstance().options.renderDebug && ConfigSettings.HEARTH_DEBUG.get())
+        if (event.getStage() != RenderLevelStageEvent.Stage.AFTER_PARTICLES) return;
+
+        boolean enabled = isEnabled();
+        // Meshes aren't kept up-to-date while the debug view is off
+        if (enabled && !WAS_RENDERING)
+        {   DIRTY_MESHES.addAll(HEARTH_LOCATIONS.keySet());
+        }
+        WAS_RENDERING = enabled;
+
+        if (enabled)
         {
             Player player = Minecraft.getInstance().player;
             if (player == null) return;
 
+            if (!DIRTY_MESHES.isEmpty())
+            {   rebuildDirtyMeshes(player.level());
+            }
+
 
             Frustum frustum = event.getFrustum();
             PoseStack ps = event.getPoseStack();
@@ -71,61 +83,17 @@ public class HearthDebugRenderer
             Matrix4f matrix4f = ps.last().pose();
             Matrix3f matrix3f = ps.last().normal();
 
-            // Points to draw lines
-            BiConsumer<Vector3f, Vector4f> nw = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x(), pos.y(), pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 1, 0).endVertex();
-                vertexes.vertex(matrix4f, pos.x(), pos.y()+1, pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 1, 0).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> ne = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y(), pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 1, 0).endVertex();
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y()+1, pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 1, 0).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> sw = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x(), pos.y(), pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, -1, 0).endVertex();
-                vertexes.vertex(matrix4f, pos.x(), pos.y()+1, pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, -1, 0).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> se = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y(), pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 1, 0).endVertex();
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y()+1, pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 1, 0).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> nu = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x(), pos.y()+1, pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, -1, 0, 0).endVertex();
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y()+1, pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, -1, 0, 0).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> nd = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x(), pos.y(), pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 1, 0, 0).endVertex();
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y(), pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 1, 0, 0).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> su = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x(), pos.y()+1, pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 1, 0, 0).endVertex();
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y()+1, pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 1, 0, 0).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> sd = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x(), pos.y(), pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 1, 0, 0).endVertex();
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y(), pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 1, 0, 0).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> eu = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y()+1, pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 0, 1).endVertex();
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y()+1, pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 0, 1).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> ed = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y(), pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 0, -1).endVertex();
-                vertexes.vertex(matrix4f, pos.x()+1, pos.y(), pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 0, -1).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> wu = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x(), pos.y()+1, pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 0, 1).endVertex();
-                vertexes.vertex(matrix4f, pos.x(), pos.y()+1, pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 0, 1).endVertex();
-            };
-            BiConsumer<Vector3f, Vector4f> wd = (pos, color) -> {
-                vertexes.vertex(matrix4f, pos.x(), pos.y(), pos.z()).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 0, 1).endVertex();
-                vertexes.vertex(matrix4f, pos.x(), pos.y(), pos.z()+1).color(color.x(), color.y(), color.z(), color.w()).normal(matrix3f, 0, 0, 1).endVertex();
-            };
-
-            ChunkAccess workingChunk = null;
             float viewDistance = Minecraft.getInstance().options.renderDistance().get() * 2f;
+            double playerX = player.getX();
+            double playerY = player.getY();
+            double playerZ = player.getZ();
+
+            float r = 1f;
+            float g = 0.7f;
+            float b = 0.6f;
 
             List<BlockPos> invalidHearths = new ArrayList<>();
-            for (Map.Entry<BlockPos, Map<BlockPos, Collection<Direction>>> entry : HEARTH_LOCATIONS.entrySet())
+            for (Map.Entry<BlockPos, HearthDebugMesh> entry : HEARTH_LOCATIONS.entrySet())
             {
                 if (!(level.getBlockEntity(entry.getKey()) instanceof HearthBlockEntity))
                 {   invalidHearths.add(entry.getKey());
@@ -133,53 +101,35 @@ public class HearthDebugRenderer
                 }
                 if (HearthSaveDataHandler.DISABLED_HEARTHS.contains(Pair.of(entry.getKey(), level.dimension().location().toString()))) continue;
 
-                Map<BlockPos, Collection<Direction>> points = entry.getValue();
-                for (Map.Entry<BlockPos, Collection<Direction>> pair : points.entrySet())
+                for (HearthDebugMesh.Section section : entry.getValue().getSections())
                 {
-                    BlockPos pos = pair.getKey();
-                    Collection<Direction> directions = pair.getValue();
+                    AABB bounds = section.bounds();
+                    // Skip sections that are entirely past the fade distance
+                    double dx = Math.max(0, Math.max(bounds.minX - playerX, playerX - bounds.maxX));
+                    double dy = Math.max(0, Math.max(bounds.minY - playerY, playerY - bounds.maxY));
+                    double dz = Math.max(0, Math.max(bounds.minZ - playerZ, playerZ - bounds.maxZ));
+                    if (dx * dx + dy * dy + dz * dz >= viewDistance * viewDistance
+                    || !frustum.isVisible(bounds))
+                    {   continue;
+                    }
 
-                    float x = pos.getX();
-                    float y = pos.getY();
-                    float z = pos.getZ();
+                    float[] lines = section.lines();
+                    for (int i = 0; i < lines.length; i += 6)
+                    {
+                        float x1 = lines[i],     y1 = lines[i + 1], z1 = lines[i + 2];
+                        float x2 = lines[i + 3], y2 = lines[i + 4], z2 = lines[i + 5];
 
-                    float r = 1f;
-                    float g = 0.7f;
-                    float b = 0.6f;
+                        float renderAlpha = CSMath.blend(1f, 0f, (float) CSMath.getDistance(player, (x1 + x2) / 2, (y1 + y2) / 2, (z1 + z2) / 2), 5, viewDistance);
+                        if (renderAlpha <= 0.01f) continue;
 
-                    float renderAlpha = CSMath.blend(1f, 0f, (float) CSMath.getDistance(player, x + 0.5f, y + 0.5f, z + 0.5f), 5, viewDistance);
+                        // Line normals are the direction of the line
+                        float nx = x2 - x1, ny = y2 - y1, nz = z2 - z1;
+                        float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+                        if (length == 0) continue;
+                        nx /= length; ny /= length; nz /= length;
 
-                    if (renderAlpha > 0.01f && frustum.isVisible(new AABB(pos)))
-                    {
-                        ChunkPos chunkPos = new ChunkPos(pos);
-                        if (workingChunk == null || !workingChunk.getPos().equals(chunkPos))
-                            workingChunk = WorldHelper.getChunk(level, pos);
-                        if (workingChunk == null) continue;
-
-                        if (!WorldHelper.canSeeSky(level, pos, 1))
-                        {   LevelRenderer.renderVoxelShape(ps, vertexes, level.getBlockState(pos).getShape(level, pos), x, y, z, r, g, b, renderAlpha, false);
-                            continue;
-                        }
-
-                        if (directions.size() == 6) continue;
-
-                        Set<BiConsumer<Vector3f, Vector4f>> lines = Sets.newHashSet(nw, ne, sw, se, nu, nd, su, sd, eu, ed, wu, wd);
-
-                        // Remove the lines if another point is on the adjacent face
-                        if (directions.contains(Direction.DOWN))
-                            Stream.of(nd, sd, ed, wd).forEach(lines::remove);
-                        if (directions.contains(Direction.UP))
-                            Stream.of(nu, su, eu, wu).forEach(lines::remove);
-                        if (directions.contains(Direction.NORTH))
-                            Stream.of(nw, ne, nu, nd).forEach(lines::remove);
-                        if (directions.contains(Direction.SOUTH))
-                            Stream.of(sw, se, su, sd).forEach(lines::remove);
-                        if (directions.contains(Direction.WEST))
-                            Stream.of(nw, sw, wu, wd).forEach(lines::remove);
-                        if (directions.contains(Direction.EAST))
-                            Stream.of(ne, se, eu, ed).forEach(lines::remove);
-
-                        lines.forEach(line -> line.accept(new Vector3f(x, y, z), new Vector4f(r, g, b, renderAlpha)));
+                        vertexes.vertex(matrix4f, x1, y1, z1).color(r, g, b, renderAlpha).normal(matrix3f, nx, ny, nz).endVertex();
+                        vertexes.vertex(matrix4f, x2, y2, z2).color(r, g, b, renderAlpha).normal(matrix3f, nx, ny, nz).endVertex();
                     }
                 }
             }
@@ -190,28 +140,56 @@ public class HearthDebugRenderer
         }
     }
 
+    /**
+     * Called when the hearth's volume is synced from the server. Marks the hearth's outline mesh to be rebuilt when it is next rendered
+     */
     public static void updatePaths(HearthBlockEntity hearth)
     {
-        if (!hearth.isSpreading()) return;
-        BlockPos pos = hearth.getBlockPos();
-        Set<BlockPos> paths = hearth.getPaths().stream().map(path -> path.pos).collect(Collectors.toSet());
+        if (hearth.getLevel() == null) return;
+
+        HEARTH_LOCATIONS.putIfAbsent(hearth.getBlockPos(), HearthDebugMesh.EMPTY);
+        if (WAS_RENDERING)
+        {   DIRTY_MESHES.add(hearth.getBlockPos());
+        }
+    }
 
-        Map<BlockPos, Collection<Direction>> pathMap = HEARTH_LOCATIONS.computeIfAbsent(pos, k -> Maps.newHashMap());
-        if (pathMap.size() != paths.size())
+    /**
+     * Called when a block changes on the client. Blocks inside a hearth's volume are drawn as their outline, so its mesh is rebuilt
+     */
+    public static void onBlockChanged(Level level, BlockPos pos)
+    {
+        if (!WAS_RENDERING) return;
+
+        ThermalSourceIndex index = ThermalSourceIndex.getIfPresent(level);
+        if (index == null) return;
+
+        List<HearthBlockEntity> sources = index.getSourcesInSection(SectionPos.blockToSection(pos.asLong()));
+        for (int i = 0; i < sources.size(); i++)
         {
-            HEARTH_LOCATIONS.put(pos, paths.stream().map(path ->
+            HearthBlockEntity source = sources.get(i);
+            if (source.getVolume().contains(pos.asLong()))
+            {   DIRTY_MESHES.add(source.getBlockPos());
+            }
+        }
+    }
+
+    private static void rebuildDirtyMeshes(Level level)
+    {
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        for (BlockPos hearthPos : DIRTY_MESHES)
+        {
+            if (!HEARTH_LOCATIONS.containsKey(hearthPos) || !(level.getBlockEntity(hearthPos) instanceof HearthBlockEntity hearth)) continue;
+
+            HEARTH_LOCATIONS.put(hearthPos, HearthDebugMesh.build(hearth.getVolume(), packedPos ->
             {
-                ArrayList<Direction> dirs = new ArrayList<>();
-                for (int i = 0; i < Direction.values().length; i++)
-                {
-                    Direction dir = Direction.values()[i];
-                    BlockPos dirPos = path.relative(dir);
-                    if (paths.contains(dirPos))
-                    {   dirs.add(dir);
-                    }
-                }
-                return Map.entry(path, dirs);
-            }).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+                pos.set(packedPos);
+                BlockState state = level.getBlockState(pos);
+                // Points inside of a block are drawn as the block's outline
+                return WorldHelper.isSkyOccluder(level, state, pos)
+                       ? state.getShape(level, pos)
+                       : null;
+            }));
         }
+        DIRTY_MESHES.clear();
     }
 }
@@ -0,0 +1,142 @@
+package com.momosoftworks.coldsweat.client.particle;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.ParticleStatus;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.particles.ParticleOptions;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Random;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Shared emitter for the ambient particles of thermal sources and the soulspring lamp.<br>
+ * Particles are limited by a per-frame budget that depends on the particle setting,
+ * and particles far from the camera are spawned less often. Every caller shares one {@link Random}.
+ */
+@Mod.EventBusSubscriber(value = Dist.CLIENT)
+public class ThermalParticleEmitter
+{
+    // Particles are spawned at full density within this distance of the camera
+    public static final double FULL_DENSITY_DISTANCE = 16;
+    // Particles are not spawned past this distance from the camera, which is also where vanilla stops spawning them
+    public static final double MAX_DISTANCE = 32;
+
+    private static ThermalParticleEmitter INSTANCE;
+
+    private final Sink sink;
+    private final Supplier<Vec3> camera;
+    private final IntSupplier frameBudget;
+    private final Random random;
+
+    private Vec3 cameraPos = Vec3.ZERO;
+    private int budget = 0;
+    private int emitted = 0;
+
+    /**
+     * @param sink Where particles are sent once they pass the budget
+     * @param camera The position that particles are sampled by distance from
+     * @param frameBudget The number of particles allowed each frame
+     */
+    public ThermalParticleEmitter(Sink sink, Supplier<Vec3> camera, IntSupplier frameBudget, Random random)
+    {
+        this.sink = sink;
+        this.camera = camera;
+        this.frameBudget = frameBudget;
+        this.random = random;
+    }
+
+    public static ThermalParticleEmitter get()
+    {
+        if (INSTANCE == null)
+        {
+            Minecraft mc = Minecraft.getInstance();
+            INSTANCE = new ThermalParticleEmitter((particle, x, y, z, vx, vy, vz) ->
+                                                  {   ClientLevel level = mc.level;
+                                                      if (level != null) level.addParticle(particle, false, x, y, z, vx, vy, vz);
+                                                  },
+                                                  () -> mc.gameRenderer.getMainCamera().getPosition(),
+                                                  () -> getBudgetForSetting(mc.options.particles().get()),
+                                                  new Random());
+        }
+        return INSTANCE;
+    }
+
+    public static int getBudgetForSetting(ParticleStatus status)
+    {
+        return switch (status)
+        {   case ALL -> 200;
+            case DECREASED -> 50;
+            case MINIMAL -> 0;
+        };
+    }
+
+    /**
+     * Resets the budget and samples the camera position. Called at the start of every frame
+     */
+    public void beginFrame()
+    {
+        this.budget = frameBudget.getAsInt();
+        this.emitted = 0;
+        this.cameraPos = camera.get();
+    }
+
+    public Random getRandom()
+    {   return random;
+    }
+
+    /**
+     * Rolls whether an ambient particle should be spawned at the given position.<br>
+     * The chance falls off with distance from the camera, and is 0 if the frame's budget has been used up.
+     */
+    public boolean shouldEmit(double x, double y, double z, float chance)
+    {
+        if (emitted >= budget) return false;
+
+        double distanceSqr = cameraPos.distanceToSqr(x, y, z);
+        if (distanceSqr >= MAX_DISTANCE * MAX_DISTANCE) return false;
+        if (distanceSqr > FULL_DENSITY_DISTANCE * FULL_DENSITY_DISTANCE)
+        {   chance *= (float) ((MAX_DISTANCE - Math.sqrt(distanceSqr)) / (MAX_DISTANCE - FULL_DENSITY_DISTANCE));
+        }
+        return random.nextFloat() < chance;
+    }
+
+    /**
+     * Spawns the particle if the frame's budget hasn't been used up
+     * @return True if the particle was spawned
+     */
+    public boolean emit(ParticleOptions particle, double x, double y, double z, double vx, double vy, double vz)
+    {
+        if (emitted >= budget) return false;
+
+        emitted++;
+        sink.addParticle(particle, x, y, z, vx, vy, vz);
+        return true;
+    }
+
+    /**
+     * @return The number of particles spawned since the start of the frame
+     */
+    public int getEmitted()
+    {   return emitted;
+    }
+
+    @SubscribeEvent
+    public static void onRenderTick(TickEvent.RenderTickEvent event)
+    {
+        if (event.phase == TickEvent.Phase.START)
+        {   get().beginFrame();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Sink
+    {
+        void addParticle(ParticleOptions particle, double x, double y, double z, double vx, double vy, double vz);
+    }
+}
@@ -0,0 +1,143 @@
+package com.momosoftworks.coldsweat.client.renderer;
+
+import com.momosoftworks.coldsweat.util.world.SpreadVolume;
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.shapes.VoxelShape;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Outline geometry of a hearth's volume, built when the debug view is rendered after the volume or its blocks change, and grouped by chunk section
+ * so whole sections can be culled at once.<br>
+ * Each line is stored as 6 floats (start and end), in world coordinates. Building the mesh doesn't touch any rendering state.
+ */
+public class HearthDebugMesh
+{
+    public static final HearthDebugMesh EMPTY = new HearthDebugMesh(Collections.emptyList(), 0);
+
+    private static final int DOWN  = 1 << Direction.DOWN.get3DDataValue();
+    private static final int UP    = 1 << Direction.UP.get3DDataValue();
+    private static final int NORTH = 1 << Direction.NORTH.get3DDataValue();
+    private static final int SOUTH = 1 << Direction.SOUTH.get3DDataValue();
+    private static final int WEST  = 1 << Direction.WEST.get3DDataValue();
+    private static final int EAST  = 1 << Direction.EAST.get3DDataValue();
+
+    // The 12 edges of a block: start offset, end offset, and the two faces that hide the edge if another point is on them
+    private static final int[][] EDGES = {
+            {0, 0, 0,  0, 1, 0,  NORTH | WEST},
+            {1, 0, 0,  1, 1, 0,  NORTH | EAST},
+            {0, 0, 1,  0, 1, 1,  SOUTH | WEST},
+            {1, 0, 1,  1, 1, 1,  SOUTH | EAST},
+            {0, 1, 0,  1, 1, 0,  NORTH | UP},
+            {0, 0, 0,  1, 0, 0,  NORTH | DOWN},
+            {0, 1, 1,  1, 1, 1,  SOUTH | UP},
+            {0, 0, 1,  1, 0, 1,  SOUTH | DOWN},
+            {1, 1, 0,  1, 1, 1,  EAST | UP},
+            {1, 0, 0,  1, 0, 1,  EAST | DOWN},
+            {0, 1, 0,  0, 1, 1,  WEST | UP},
+            {0, 0, 0,  0, 0, 1,  WEST | DOWN}
+    };
+
+    private final List<Section> sections;
+    private final int lineCount;
+
+    private HearthDebugMesh(List<Section> sections, int lineCount)
+    {   this.sections = sections;
+        this.lineCount = lineCount;
+    }
+
+    /**
+     * Builds the outline of every point in the volume.<br>
+     * Points are drawn as the edges of their block that aren't shared with a neighboring point.
+     * @param outlineShapes Returns the shape to outline instead for points that are inside a block, or null for open points
+     */
+    public static HearthDebugMesh build(SpreadVolume volume, LongFunction<VoxelShape> outlineShapes)
+    {
+        Long2ObjectOpenHashMap<FloatArrayList> lines = new Long2ObjectOpenHashMap<>();
+        int size = volume.size();
+        for (int i = 0; i < size; i++)
+        {
+            long pos = volume.getPos(i);
+            int x = BlockPos.getX(pos);
+            int y = BlockPos.getY(pos);
+            int z = BlockPos.getZ(pos);
+            FloatArrayList sectionLines = lines.computeIfAbsent(SectionPos.blockToSection(pos), s -> new FloatArrayList());
+
+            VoxelShape shape = outlineShapes.apply(pos);
+            if (shape != null)
+            {   shape.forAllEdges((x1, y1, z1, x2, y2, z2) -> addLine(sectionLines, x + x1, y + y1, z + z1, x + x2, y + y2, z + z2));
+                continue;
+            }
+
+            int neighbors = 0;
+            for (Direction direction : Direction.values())
+            {
+                if (volume.contains(x + direction.getStepX(), y + direction.getStepY(), z + direction.getStepZ()))
+                {   neighbors |= 1 << direction.get3DDataValue();
+                }
+            }
+            for (int[] edge : EDGES)
+            {
+                if ((neighbors & edge[6]) == 0)
+                {   addLine(sectionLines, x + edge[0], y + edge[1], z + edge[2], x + edge[3], y + edge[4], z + edge[5]);
+                }
+            }
+        }
+
+        List<Section> sections = new ArrayList<>(lines.size());
+        int lineCount = 0;
+        for (Long2ObjectMap.Entry<FloatArrayList> entry : lines.long2ObjectEntrySet())
+        {
+            FloatArrayList sectionLines = entry.getValue();
+            if (sectionLines.isEmpty()) continue;
+
+            long section = entry.getLongKey();
+            int minX = SectionPos.sectionToBlockCoord(SectionPos.x(section));
+            int minY = SectionPos.sectionToBlockCoord(SectionPos.y(section));
+            int minZ = SectionPos.sectionToBlockCoord(SectionPos.z(section));
+            // Inflated because block shapes can stick out of their block
+            sections.add(new Section(new AABB(minX, minY, minZ, minX + 16, minY + 16, minZ + 16).inflate(1),
+                                     sectionLines.toFloatArray()));
+            lineCount += sectionLines.size() / 6;
+        }
+        return new HearthDebugMesh(Collections.unmodifiableList(sections), lineCount);
+    }
+
+    private static void addLine(FloatArrayList lines, double x1, double y1, double z1, double x2, double y2, double z2)
+    {   lines.add((float) x1);
+        lines.add((float) y1);
+        lines.add((float) z1);
+        lines.add((float) x2);
+        lines.add((float) y2);
+        lines.add((float) z2);
+    }
+
+    public List<Section> getSections()
+    {   return sections;
+    }
+
+    public int getLineCount()
+    {   return lineCount;
+    }
+
+    /**
+     * The lines of the mesh that lie in one chunk section
+     * @param bounds The bounds of the section, used for frustum culling
+     * @param lines Packed lines, 6 floats each
+     */
+    public record Section(AABB bounds, float[] lines)
+    {
+        public int getLineCount()
+        {   return lines.length / 6;
+        }
+    }
+}
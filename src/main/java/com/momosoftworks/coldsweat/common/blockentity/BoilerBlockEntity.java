@@ -77,6 +77,7 @@ public class BoilerBlockEntity extends HearthBlockEntity
     public void tick(Level level, BlockState state, BlockPos pos)
     {
         super.tick(level, pos);
+        if (this.isDormant()) return;
 
         if (this.getFuel() > 0)
         {
@@ -166,12 +167,23 @@ public class BoilerBlockEntity extends HearthBlockEntity
     }
 
     @Override
-    protected void tickDrainFuel()
+    protected int getFuelInterval()
+    {   return ConfigSettings.BOILER_FUEL_INTERVAL.get();
+    }
+
+    /**
+     * Waterskins in the inventory are processed every tick, so the boiler stays awake while it holds any
+     */
+    @Override
+    protected boolean canGoDormant()
     {
-        int fuelInterval = ConfigSettings.BOILER_FUEL_INTERVAL.get();
-        if (fuelInterval > 0 && this.ticksExisted % fuelInterval == 0)
-        {   this.drainFuel();
+        for (int i = 1; i < 10; i++)
+        {
+            if (!this.getItem(i).isEmpty())
+            {   return false;
+            }
         }
+        return super.canGoDormant();
     }
 
     @Override
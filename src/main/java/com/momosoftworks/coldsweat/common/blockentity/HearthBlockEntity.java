@@ -7,6 +7,7 @@ import com.momosoftworks.coldsweat.api.temperature.modifier.ThermalSourceTempMod
 import com.momosoftworks.coldsweat.api.temperature.modifier.TempModifier;
 import com.momosoftworks.coldsweat.api.util.Temperature;
 import com.momosoftworks.coldsweat.client.event.HearthDebugRenderer;
+import com.momosoftworks.coldsweat.client.particle.ThermalParticleEmitter;
 import com.momosoftworks.coldsweat.common.block.HearthBottomBlock;
 import com.momosoftworks.coldsweat.common.capability.handler.EntityTempManager;
 import com.momosoftworks.coldsweat.common.container.HearthContainer;
@@ -15,29 +16,41 @@ import com.momosoftworks.coldsweat.config.ConfigSettings;
 import com.momosoftworks.coldsweat.core.init.BlockEntityInit;
 import com.momosoftworks.coldsweat.core.init.ParticleTypesInit;
 import com.momosoftworks.coldsweat.core.network.ColdSweatPacketHandler;
-import com.momosoftworks.coldsweat.core.network.message.HearthResetMessage;
+import com.momosoftworks.coldsweat.core.network.message.HearthVolumeSyncMessage;
 import com.momosoftworks.coldsweat.data.codec.configuration.FuelData;
+import com.momosoftworks.coldsweat.mixin.MixinMobEffectDuration;
 import com.momosoftworks.coldsweat.data.tag.ModBlockTags;
 import com.momosoftworks.coldsweat.data.tag.ModFluidTags;
 import com.momosoftworks.coldsweat.util.ClientOnlyHelper;
 import com.momosoftworks.coldsweat.compat.CompatManager;
-import com.momosoftworks.coldsweat.util.entity.DummyPlayer;
 import com.momosoftworks.coldsweat.util.math.CSMath;
-import com.momosoftworks.coldsweat.util.math.FastMap;
 import com.momosoftworks.coldsweat.util.registries.ModBlocks;
-import com.momosoftworks.coldsweat.util.registries.ModEffects;
 import com.momosoftworks.coldsweat.util.registries.ModSounds;
 import com.momosoftworks.coldsweat.util.serialization.ConfigHelper;
+import com.momosoftworks.coldsweat.util.world.PlayerSectionIndex;
+import com.momosoftworks.coldsweat.util.world.SectionSnapshot;
+import com.momosoftworks.coldsweat.util.world.SkyOcclusionCache;
+import com.momosoftworks.coldsweat.util.world.SpreadExecutor;
 import com.momosoftworks.coldsweat.util.world.SpreadPath;
+import com.momosoftworks.coldsweat.util.world.SpreadVolume;
+import com.momosoftworks.coldsweat.util.world.ThermalSourceIndex;
 import com.momosoftworks.coldsweat.util.world.WorldHelper;
 import com.simibubi.create.content.fluids.pipes.EncasedPipeBlock;
 import com.simibubi.create.content.fluids.pipes.FluidPipeBlock;
 import com.simibubi.create.content.fluids.pipes.GlassFluidPipeBlock;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.ParticleStatus;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.core.NonNullList;
+import net.minecraft.core.SectionPos;
 import net.minecraft.core.particles.ParticleOptions;
 import net.minecraft.core.particles.ParticleTypes;
 import net.minecraft.core.particles.SimpleParticleType;
@@ -48,10 +61,10 @@ import net.minecraft.network.chat.Component;
 import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.sounds.SoundEvent;
 import net.minecraft.sounds.SoundEvents;
 import net.minecraft.sounds.SoundSource;
-import net.minecraft.util.RandomSource;
 import net.minecraft.world.ContainerHelper;
 import net.minecraft.world.WorldlyContainer;
 import net.minecraft.world.effect.MobEffectInstance;
@@ -63,8 +76,10 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 import net.minecraft.world.item.PotionItem;
 import net.minecraft.world.item.alchemy.PotionUtils;
+import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.PipeBlock;
 import net.minecraft.world.level.block.RotatedPillarBlock;
@@ -73,38 +88,27 @@ import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.entity.RandomizableContainerBlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.ChunkAccess;
-import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.material.Fluids;
-import net.minecraft.world.phys.AABB;
-import net.minecraft.world.phys.Vec3;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
-import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.ForgeCapabilities;
 import net.minecraftforge.common.util.LazyOptional;
-import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fluids.capability.IFluidHandler;
-import net.minecraftforge.fml.common.Mod;
-import net.minecraftforge.fml.util.ObfuscationReflectionHelper;
 import net.minecraftforge.network.PacketDistributor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
 
-@Mod.EventBusSubscriber
 public class HearthBlockEntity extends RandomizableContainerBlockEntity implements WorldlyContainer
 {
-    // List of SpreadPaths, which determine where the Hearth is affecting and how it spreads through/around blocks
-    List<SpreadPath> paths = new ArrayList<>(this.getMaxPaths());
-    // Used as a lookup table for detecting duplicate paths (faster than ArrayList#contains())
-    Set<BlockPos> pathLookup = new HashSet<>(this.getMaxPaths());
-    Map<Pair<Integer, Integer>, Pair<Integer, Boolean>> seeSkyMap = new FastMap<>(this.getMaxPaths());
+    // Primitive storage for the paths, which determine where the Hearth is affecting and how it spreads through/around blocks
+    // Also holds a map of which columns can see the sky
+    final SpreadVolume volume = new SpreadVolume();
 
     List<MobEffectInstance> effects = new ArrayList<>();
 
@@ -135,56 +139,85 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
     boolean hasHotFuel = false;
     boolean hasColdFuel = false;
     int insulationLevel = 0;
+    // The cooling and heating levels last reported to the level's InsulationField
+    int reportedCoolingLevel = 0;
+    int reportedHeatingLevel = 0;
 
     boolean isPlayerNearby = false;
-    List<Player> players = new ArrayList<>();
-    int rebuildCooldown = 0;
+    // Fuel use before the level's ThermalSourceIndex started insulating players, to tell if it changed
+    boolean insulatingFromColdFuel = false;
+    boolean insulatingFromHotFuel = false;
     boolean forceRebuild = false;
     List<BlockPos> queuedUpdates = new ArrayList<>();
+    // Paths removed while ticking, whose children need to be re-connected
+    LongArrayList removedPaths = new LongArrayList();
+    // Off-thread spreading, see ConfigSettings#THERMAL_SOURCE_ASYNC_SPREAD
+    CompletableFuture<AsyncSpreadResult> asyncSpread = null;
+    ThermalSourceIndex.SectionWatch asyncSpreadWatch = null;
+    int asyncStalledAt = -1;
+    // Saved form of the finished volume, which is reused until the volume changes
+    CompoundTag savedVolume = null;
+    int savedVolumeModCount = -1;
+    // Hashes of the blocks the saved volume depends on, by section, and the section change counters they were hashed at
+    Long2IntOpenHashMap fingerprints = new Long2IntOpenHashMap();
+    Long2IntOpenHashMap fingerprintChanges = new Long2IntOpenHashMap();
+    int skyFingerprint = 0;
+    // False until a restored volume has been checked against the world
+    boolean fingerprintsValidated = true;
+    // Positions added to and removed from the volume since it was last sent to clients, and the players that have it
+    LongOpenHashSet unsyncedAdded = new LongOpenHashSet();
+    LongOpenHashSet unsyncedRemoved = new LongOpenHashSet();
+    Set<UUID> syncedPlayers = new HashSet<>();
+    boolean syncedSpreading = false;
+    // Sources with no players in range stop ticking, and catch up on fuel usage when they wake up
+    boolean dormant = false;
+    long dormantSince = 0;
+    // The game time at which the source runs out of fuel while dormant, and needs to wake up to handle it
+    long dormantUntil = Long.MAX_VALUE;
     public int ticksExisted = 0;
+    // The tick at which the potion effects' durations were last counted down
+    int effectsTickedAt = 0;
 
     boolean registeredLocation = false;
 
     boolean showParticles = true;
-    int frozenPaths = 0;
     boolean spreading = true;
 
     boolean hasSmokestack = false;
     int smokestackHeight = 2;
     boolean topBlocked = false;
+    // Set when a block above the source changes, so the smokestack is only re-checked when needed
+    boolean stackChanged = true;
 
     static final Direction[] DIRECTIONS = Direction.values();
+    // Minimum number of ticks between re-applying a hearth potion effect to a player
+    static final int EFFECT_REFRESH_INTERVAL = 60;
 
-    static Method TICK_DOWN_EFFECT;
-    static
-    {
-        try
-        {   TICK_DOWN_EFFECT = ObfuscationReflectionHelper.findMethod(MobEffectInstance.class, "m_19579_");
-            TICK_DOWN_EFFECT.setAccessible(true);
-        }
-        catch (Exception ignored) {}
-    }
+    // Potion effects are counted down in batches of this many ticks
+    static final int EFFECT_TICK_INTERVAL = 20;
 
     public HearthBlockEntity(BlockEntityType type, BlockPos pos, BlockState state)
     {   super(type, pos, state);
-        MinecraftForge.EVENT_BUS.register(this);
     }
 
     public HearthBlockEntity(BlockPos pos, BlockState state)
     {   this(BlockEntityInit.HEARTH_BLOCK_ENTITY_TYPE.get(), pos, state);
     }
 
-    @SubscribeEvent
+    /**
+     * Called by the {@link ThermalSourceIndex} when a block changes in a chunk section that this hearth's volume overlaps
+     */
     public void onBlockUpdate(BlockStateChangedEvent event)
     {
         BlockPos pos = event.getPosition();
         Level level = event.getLevel();
 
-        if (level == this.level
-        && this.pathLookup.contains(pos)
-        && !event.getOldState().getCollisionShape(level, pos).equals(event.getNewState().getCollisionShape(level, pos)))
+        if (level == this.level && this.volume.contains(pos.asLong()))
         {
-            this.sendBlockUpdate(pos);
+            this.wake();
+            if (!event.getOldState().getCollisionShape(level, pos).equals(event.getNewState().getCollisionShape(level, pos)))
+            {   this.sendBlockUpdate(pos);
+            }
         }
     }
 
@@ -281,22 +314,22 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
         // Easy access to clientside testList::stream
         boolean isClient = level.isClientSide;
 
-        this.ticksExisted++;
+        if (this.dormant)
+        {
+            if (!this.shouldWake(level, pos)) return;
+            this.wake();
+        }
 
-        if (rebuildCooldown > 0) rebuildCooldown--;
+        this.ticksExisted++;
 
         // Locate nearby players
         if (this.level != null && this.ticksExisted % 20 == 0)
         {
-            this.isPlayerNearby = false;
-            players.clear();
-            for (Player player : this.level.players())
-            {
-                Vec3 playerPos = CompatManager.Valkyrien.transformIfShipPos(level, player.position());
-                if (playerPos.closerThan(pos.getCenter(), this.getMaxRange()))
-                {   players.add(player);
-                    this.isPlayerNearby = true;
-                }
+            PlayerSectionIndex playerIndex = PlayerSectionIndex.get(level);
+            this.isPlayerNearby = playerIndex.isPlayerNear(pos.getCenter(), this.getMaxRange());
+            if (!isClient && !this.isPlayerNearby && this.canGoDormant())
+            {   this.goDormant();
+                return;
             }
         }
 
@@ -311,13 +344,22 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
             this.shouldUseColdFuel = this.isSidePowered && this.getColdFuel() > 0;
             this.shouldUseHotFuel = this.isBackPowered && this.getHotFuel() > 0;
         }
-        if (!this.shouldUseColdFuel && !this.shouldUseHotFuel && !this.paths.isEmpty())
-        {   this.forceUpdate();
-        }
+        // The volume is only calculated on the server. Clients receive it through HearthVolumeSyncMessage
+        if (!isClient)
+        {
+            if (!this.shouldUseColdFuel && !this.shouldUseHotFuel && !this.volume.isEmpty())
+            {   this.forceUpdate();
+            }
 
-        // Reset if a nearby block has been updated
-        if (forceRebuild || (rebuildCooldown <= 0 && !this.queuedUpdates.isEmpty()))
-        {   this.resetPaths();
+            this.tickSavedVolume();
+
+            // Rebuild if the hearth was turned off, or repair around nearby blocks that have been updated
+            if (forceRebuild)
+            {   this.resetPaths();
+            }
+            else if (!this.queuedUpdates.isEmpty())
+            {   this.repairPaths();
+            }
         }
 
         if (this.getColdFuel() > 0 || this.getHotFuel() > 0)
@@ -337,18 +379,20 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
                             && !HearthSaveDataHandler.DISABLED_HEARTHS.contains(levelPos);
                 }
 
-                if (paths.isEmpty())
-                {   this.addPath(new SpreadPath(pos.above(2)).setOrigin(pos.above(2)));
-                    pathLookup.add(pos.above(2));
+                if (!isClient)
+                {
+                    if (volume.isEmpty())
+                    {   long startPos = pos.above(2).asLong();
+                        volume.add(startPos, Direction.UP, startPos);
+                    }
+                    // Mark as not spreading if all paths are frozen
+                    this.spreading = volume.frozenSize() < volume.activeSize();
                 }
 
-                // Mark as not spreading if all paths are frozen
-                this.spreading = this.frozenPaths < paths.size();
-
                 /*
                  Partition the points into logical "sub-maps" to be iterated over separately each tick
                 */
-                int pathCount = paths.size();
+                int pathCount = volume.activeSize();
                 // Size of each partition (sub-list) of paths
                 int partSize = spreading ? CSMath.clamp(pathCount / 3, 100, 4000)
                                          : CSMath.clamp(pathCount / 20, 10, 100);
@@ -361,32 +405,11 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
 
                 // Spread to new blocks
                 // Only tick paths every 20 ticks or if there is only one or fewer paths (prevents hearths that can't spread causing undue lag)
-                if (this.paths.size() > 1 || this.ticksExisted % 20 == 0)
+                if (volume.activeSize() > 1 || this.ticksExisted % 20 == 0)
                 {   this.tickPaths(firstIndex, lastIndex);
                 }
-                if (isClient && spreading && paths.size() != pathCount)
-                {   HearthDebugRenderer.updatePaths(this);
-                }
 
-                // Give insulation to players
-                if (!isClient && this.ticksExisted % 5 == 0)
-                {
-                    // Reset the usage status for cold/hot fuel
-                    if (ConfigSettings.SMART_HEARTH.get())
-                    {   this.resetFuelStatus();
-                    }
-                    // Provide insulation to players & calculate fuel usage
-                    for (int i = 0; i < players.size(); i++)
-                    {
-                        Player player = players.get(i);
-                        if (player == null || player instanceof DummyPlayer) continue;
-                        AABB playerBB = CompatManager.Valkyrien.transformIfShipPos(level, player.getBoundingBox()).inflate(-0.1);
-                        if (BlockPos.betweenClosedStream(playerBB).anyMatch(pathLookup::contains))
-                        {   this.insulatePlayer(player);
-                        }
-                    }
-                    players.clear();
-                }
+                // Players are insulated by the level's ThermalSourceIndex, see insulatePlayer()
 
                 // Drain fuel
                 if (!isClient)
@@ -399,6 +422,11 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
         {   this.checkForFuel();
         }
 
+        // Send changes in the volume to clients
+        if (!isClient && this.ticksExisted % 5 == 0)
+        {   this.tickVolumeSync();
+        }
+
         // Update fuel
         if (!this.level.isClientSide && (this.isFuelChanged() || wasUsingColdFuel != this.shouldUseColdFuel || wasUsingHotFuel != this.shouldUseHotFuel))
         {   this.updateFuelState();
@@ -409,143 +437,831 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
         {   this.tickParticles();
         }
 
-        // Calculate the height of the smokestack (can be extended with walls)
-        if (this.ticksExisted % 20 == 0)
+        // Only re-check the smokestack when a block above the hearth has changed
+        if (this.stackChanged)
+        {   this.checkStack(level);
+        }
+
+        // Invalidate the cached levels of the merged insulation field if this source's strength changed
+        if (this.getCoolingLevel() != this.reportedCoolingLevel || this.getHeatingLevel() != this.reportedHeatingLevel)
         {
-            this.smokestackHeight = 2;
-            BlockState state = level.getBlockState(this.getBlockPos().above(this.smokestackHeight));
-            while (state.is(ModBlockTags.EXTENDS_SMOKESTACK))
-            {   this.smokestackHeight++;
-                state = level.getBlockState(this.getBlockPos().above(this.smokestackHeight));
+            this.reportedCoolingLevel = this.getCoolingLevel();
+            this.reportedHeatingLevel = this.getHeatingLevel();
+            ThermalSourceIndex index = ThermalSourceIndex.getIfPresent(level);
+            if (index != null && index.getInsulationField() != null)
+            {   index.getInsulationField().onLevelsChanged();
             }
         }
+    }
+
+    /**
+     * Calculates the height of the smokestack (can be extended with walls), and whether its top is blocked off
+     */
+    protected void checkStack(Level level)
+    {
+        this.stackChanged = false;
+        this.smokestackHeight = 2;
+        BlockState state = level.getBlockState(this.getBlockPos().above(this.smokestackHeight));
+        while (state.is(ModBlockTags.EXTENDS_SMOKESTACK))
+        {   this.smokestackHeight++;
+            state = level.getBlockState(this.getBlockPos().above(this.smokestackHeight));
+        }
 
-        // Check if top is blocked off
         BlockPos topPos = this.getBlockPos().above(this.smokestackHeight);
-        this.topBlocked = WorldHelper.isSpreadBlocked(level, level.getBlockState(topPos), topPos, Direction.UP, Direction.UP);
+        this.topBlocked = WorldHelper.isSpreadBlocked(level, state, topPos, Direction.UP, Direction.UP);
+    }
+
+    /**
+     * Called by the {@link ThermalSourceIndex} when a block changes anywhere above this source
+     */
+    public void onStackBlockChanged()
+    {
+        // Fuel used while dormant depends on whether the top was blocked
+        this.wake();
+        this.stackChanged = true;
+    }
+
+    /**
+     * @return True if nothing is left for the source to do without players around.<br>
+     * Pending volume work, unsynced changes, and active potion effects keep the source awake.
+     */
+    protected boolean canGoDormant()
+    {
+        return this.level instanceof ServerLevel
+            && !this.forceRebuild && this.queuedUpdates.isEmpty()
+            && this.asyncSpread == null && this.fingerprintsValidated
+            && (this.syncedPlayers.isEmpty() || !this.hasUnsyncedVolumeChanges())
+            && this.effects.isEmpty() && !this.isFuelChanged()
+            // Smart hearths stop using fuel once there are no players to insulate
+            && !(ConfigSettings.SMART_HEARTH.get() && (this.shouldUseColdFuel || this.shouldUseHotFuel));
+    }
+
+    public boolean isDormant()
+    {   return this.dormant;
+    }
+
+    protected void goDormant()
+    {
+        // The current tick is cut short, so it is counted as skipped
+        this.ticksExisted--;
+        this.dormant = true;
+        this.dormantSince = this.level.getGameTime();
+        this.dormantUntil = this.getDormantFuelDepletionTime();
+    }
+
+    /**
+     * Wakes the source up if it is dormant, applying the fuel it would have used while ticking
+     */
+    public void wake()
+    {
+        if (this.dormant)
+        {   this.catchUpDormant();
+            this.dormant = false;
+        }
+    }
+
+    protected boolean shouldWake(Level level, BlockPos pos)
+    {
+        long time = level.getGameTime();
+        return time >= this.dormantUntil
+            || (time - this.dormantSince) % 20 == 0 && PlayerSectionIndex.get(level).isPlayerNear(pos.getCenter(), this.getMaxRange());
+    }
+
+    /**
+     * Applies the ticks skipped since the source went dormant (or since the last catch-up).<br>
+     * Fuel is drained as it would have been by {@link #tickDrainFuel()}, without ticking.
+     */
+    protected void catchUpDormant()
+    {
+        long elapsed = this.getDormantTicks();
+        if (elapsed <= 0) return;
+        this.dormantSince = this.level.getGameTime();
+
+        this.insulationLevel = this.getCaughtUpInsulationLevel(elapsed);
+        long drains = this.getDormantFuelDrains(elapsed);
+        if (drains > 0)
+        {
+            if (this.shouldUseColdFuel)
+            {   this.setColdFuel((int) Math.max(0, this.getColdFuel() - drains), false);
+            }
+            if (this.shouldUseHotFuel)
+            {   this.setHotFuel((int) Math.max(0, this.getHotFuel() - drains), false);
+            }
+        }
+        this.ticksExisted += (int) elapsed;
+    }
+
+    /**
+     * @return The number of ticks skipped since the source went dormant (or since the last catch-up), or 0 if it is awake
+     */
+    protected long getDormantTicks()
+    {   return this.dormant ? Math.max(0, this.level.getGameTime() - this.dormantSince) : 0;
+    }
+
+    protected int getCaughtUpInsulationLevel(long elapsed)
+    {
+        if (this.getColdFuel() > 0 || this.getHotFuel() > 0)
+        {   return (int) Math.min(Math.max(this.insulationLevel, this.getInsulationTime()), this.insulationLevel + elapsed);
+        }
+        return this.insulationLevel;
+    }
+
+    /**
+     * @return The units of fuel that {@link #tickDrainFuel()} would have used over the given number of skipped ticks
+     */
+    protected long getDormantFuelDrains(long elapsed)
+    {
+        int fuelInterval = this.getFuelInterval();
+        if (fuelInterval <= 0 || this.topBlocked) return 0;
+        return Math.floorDiv(this.ticksExisted + elapsed, fuelInterval) - Math.floorDiv(this.ticksExisted, fuelInterval);
+    }
+
+    /**
+     * @return The game time at which the fuel in use runs out if the source stays dormant, or {@link Long#MAX_VALUE} if it doesn't
+     */
+    protected long getDormantFuelDepletionTime()
+    {
+        int fuelInterval = this.getFuelInterval();
+        if (fuelInterval <= 0 || this.topBlocked) return Long.MAX_VALUE;
+
+        int fuel = Integer.MAX_VALUE;
+        if (this.shouldUseColdFuel) fuel = Math.min(fuel, this.getColdFuel());
+        if (this.shouldUseHotFuel)  fuel = Math.min(fuel, this.getHotFuel());
+        if (fuel == Integer.MAX_VALUE) return Long.MAX_VALUE;
+
+        // The tick count at which the last unit of fuel is drained
+        long lastDrain = (Math.floorDiv(this.ticksExisted, fuelInterval) + Math.max(1, fuel)) * (long) fuelInterval;
+        return this.dormantSince + (lastDrain - this.ticksExisted);
     }
 
     ChunkAccess workingChunk = null;
 
     protected void tickPaths(int firstIndex, int lastIndex)
     {
-        int pathCount = paths.size();
-        for (int i = firstIndex; i < Math.min(paths.size(), lastIndex); i++)
+        // Clients only spawn particles in the volume they were sent
+        if (this.level.isClientSide)
+        {   this.tickAirParticles(firstIndex, lastIndex);
+            return;
+        }
+        // Spreading is done on a worker thread instead, if enabled
+        if (this.level instanceof ServerLevel && ConfigSettings.THERMAL_SOURCE_ASYNC_SPREAD.get())
+        {   this.tickAsyncSpread();
+            return;
+        }
+
+        SpreadVolume volume = this.volume;
+        BlockPos.MutableBlockPos pathPos = new BlockPos.MutableBlockPos();
+        int pathCount = volume.activeSize();
+        for (int i = firstIndex; i < Math.min(volume.activeSize(), lastIndex); i++)
         {
-            // This operation is really fast because it's an ArrayList
-            SpreadPath spreadPath = paths.get(i);
-            BlockPos pathPos = spreadPath.pos;
-            if (spreadPath.origin == null)
-            {   spreadPath.setOrigin(this.getBlockPos());
+            // Paths are stored as packed positions in parallel arrays, so nothing is allocated here
+            long packedPos = volume.getPos(i);
+            int spX = BlockPos.getX(packedPos);
+            int spY = BlockPos.getY(packedPos);
+            int spZ = BlockPos.getZ(packedPos);
+            pathPos.set(spX, spY, spZ);
+
+            // Don't try to spread if the path is frozen
+            if (volume.isFrozen(i))
+            {
+                // Remove a 3D-checkerboard of paths after the Hearth is finished spreading to reduce pointless iteration overhead
+                // The Hearth is "finished spreading" when all paths are frozen
+                if (!spreading && (Math.abs(spY % 2) == 0) == (Math.abs(spX % 2) == Math.abs(spZ % 2)))
+                {   volume.retire(i);
+                    // Go back and reiterate over the new path at this index
+                    i--;
+                }
+                // Don't do anything else with this path
+                continue;
             }
 
-            int spX = spreadPath.x;
-            int spY = spreadPath.y;
-            int spZ = spreadPath.z;
+            /*
+             Try to spread to new blocks
+             */
 
-            // Use try-finally because there's still stuff to do even if {continue} skips the rest of the loop
-            try
-            {   // Don't try to spread if the path is frozen
-                if (spreadPath.frozen)
-                {
-                    // Remove a 3D-checkerboard of paths after the Hearth is finished spreading to reduce pointless iteration overhead
-                    // The Hearth is "finished spreading" when all paths are frozen
-                    if (!spreading && (Math.abs(spY % 2) == 0) == (Math.abs(spX % 2) == Math.abs(spZ % 2)))
-                    {   paths.remove(i);
-                        // Go back and reiterate over the new path at this index
-                        i--;
-                    }
-                    // Don't do anything else with this path
+            // The origin of the path is usually the hearth's position,
+            // but if it's spreading through Create pipes then the origin is the end of the pipe
+            long origin = volume.getOrigin(i);
+            if (pathCount < this.getMaxPaths() && this.isWithinRange(spX, spY, spZ, origin))
+            {
+                /*
+                 Spreading algorithm
+                 */
+                if (workingChunk == null || workingChunk.getPos().x != spX >> 4 || workingChunk.getPos().z != spZ >> 4)
+                {   workingChunk = WorldHelper.getChunk(level, pathPos);
+                }
+                BlockState state = workingChunk != null ? workingChunk.getBlockState(pathPos) : level.getBlockState(pathPos);
+
+                // Remove this path if it has skylight access
+                if (!this.spreadPath(level, volume, i, state, pathPos))
+                {   volume.remove(i);
+                    // Anything that spread from this path is re-connected once iteration is done
+                    this.removedPaths.add(packedPos);
+                    i--;
                     continue;
                 }
+            }
+            // Track frozen paths to know when the Hearth is done spreading
+            volume.setFrozen(i, true);
+        }
 
-                /*
-                 Try to spread to new blocks
-                 */
+        if (!this.removedPaths.isEmpty())
+        {   this.reattachChildren(this.removedPaths);
+            this.removedPaths.clear();
+        }
+    }
 
-                // The origin of the path is usually the hearth's position,
-                // but if it's spreading through Create pipes then the origin is the end of the pipe
-                if (pathCount < this.getMaxPaths() && spreadPath.withinDistance(spreadPath.origin, this.getSpreadRange())
-                && CSMath.withinCubeDistance(spreadPath.origin, this.getBlockPos(), this.getMaxRange()))
+    /**
+     * Spawns air particles at the positions in the given range of the client's copy of the volume
+     */
+    @OnlyIn(Dist.CLIENT)
+    protected void tickAirParticles(int firstIndex, int lastIndex)
+    {
+        if (!showParticles || (Minecraft.getInstance().options.renderDebug && ConfigSettings.HEARTH_DEBUG.get())) return;
+
+        Random rand = ThermalParticleEmitter.get().getRandom();
+        for (int i = firstIndex; i < Math.min(volume.activeSize(), lastIndex); i++)
+        {   long pos = volume.getPos(i);
+            this.spawnAirParticle(BlockPos.getX(pos), BlockPos.getY(pos), BlockPos.getZ(pos), rand);
+        }
+    }
+
+    /**
+     * Spreads the path at the given index to the blocks around it.<br>
+     * This may be called off of the main thread with a {@link SectionSnapshot}, so it should only read blocks from the given getter.
+     * @return False if the path can see the sky, in which case it should be removed
+     */
+    protected boolean spreadPath(BlockGetter getter, SpreadVolume volume, int index, BlockState state, BlockPos.MutableBlockPos pathPos)
+    {
+        long packedPos = volume.getPos(index);
+        int x = pathPos.getX();
+        int y = pathPos.getY();
+        int z = pathPos.getZ();
+
+        // Build a map of what positions can see the sky
+        int skyState = volume.getSkyState(x, z);
+        boolean canSeeSky;
+        if (skyState == SpreadVolume.NO_COLUMN || (SpreadVolume.getColumnY(skyState) < y != SpreadVolume.canColumnSeeSky(skyState)))
+        {   canSeeSky = getter instanceof LevelAccessor levelAccessor
+                        ? WorldHelper.canSeeSky(levelAccessor, pathPos.above(), 64)
+                        : WorldHelper.canSeeSky(getter, pathPos.above(), 64);
+            volume.setSkyState(x, z, y, canSeeSky);
+        }
+        else
+        {   canSeeSky = SpreadVolume.canColumnSeeSky(skyState);
+        }
+
+        boolean isPipe = this.isPipe(state);
+        if (canSeeSky && !isPipe) return false;
+
+        Direction pathDir = volume.getDirection(index);
+        long origin = volume.getOrigin(index);
+        // Try to spread in every direction from the current position
+        for (int d = 0; d < DIRECTIONS.length; d++)
+        {
+            Direction direction = DIRECTIONS[d];
+
+            // Don't try to spread backwards
+            if (direction.getAxis() == pathDir.getAxis() && direction != pathDir) continue;
+
+            long tryPos = BlockPos.offset(packedPos, direction);
+
+            // Avoid duplicate paths
+            if (!volume.contains(tryPos)
+            // If the BlockState is a pipe, check if the new path is following the direction of the pipe
+            && !WorldHelper.isSpreadBlocked(getter, state, pathPos, direction, pathDir)
+            && this.isValidPipeAt(state, direction))
+            {   // Paths leaving a pipe use the end of the pipe as their origin
+                volume.add(tryPos, direction, isPipe ? tryPos : origin);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Keeps an off-thread spread task running while the volume is still spreading, and commits its result when it's done.<br>
+     * The result is discarded if the volume or any of the copied blocks changed in the meantime.
+     */
+    protected void tickAsyncSpread()
+    {
+        ThermalSourceIndex index = ThermalSourceIndex.get(level);
+        if (this.asyncSpread != null)
+        {
+            if (!this.asyncSpread.isDone()) return;
+
+            AsyncSpreadResult result = this.asyncSpread.isCompletedExceptionally() ? null : this.asyncSpread.join();
+            index.unwatch(this.asyncSpreadWatch);
+            boolean changed = this.asyncSpreadWatch.isChanged();
+            this.asyncSpread = null;
+            this.asyncSpreadWatch = null;
+
+            if (result != null && !changed && result.modCount() == volume.getModCount())
+            {
+                if (result.progressed())
+                {   volume.copyFrom(result.volume());
+                    this.reattachChildren(result.removed());
+                }
+                // Nothing more could be done with the copied blocks (i.e. the rest of the area isn't loaded)
+                else this.asyncStalledAt = volume.getModCount();
+            }
+            return;
+        }
+
+        // Wait for the volume to change before trying again if the last task didn't get anywhere
+        if (volume.frozenSize() >= volume.activeSize()
+        || (volume.getModCount() == this.asyncStalledAt && this.ticksExisted % 100 != 0))
+        {   return;
+        }
+
+        // Copy the sections around paths that are still spreading, plus the sections above them for sky access checks
+        LongOpenHashSet frontier = new LongOpenHashSet();
+        for (int i = 0; i < volume.activeSize(); i++)
+        {
+            if (!volume.isFrozen(i))
+            {   frontier.add(SectionPos.blockToSection(volume.getPos(i)));
+            }
+        }
+        LongOpenHashSet spreadSections = new LongOpenHashSet();
+        for (LongIterator iterator = frontier.iterator(); iterator.hasNext(); )
+        {
+            long section = iterator.nextLong();
+            for (int x = -1; x <= 1; x++)
+            for (int y = -1; y <= 1; y++)
+            for (int z = -1; z <= 1; z++)
+            {   spreadSections.add(SectionPos.offset(section, x, y, z));
+            }
+        }
+        SectionSnapshot snapshot = SectionSnapshot.capture(level, spreadSections, 4);
+        SpreadVolume work = volume.copy();
+        int modCount = volume.getModCount();
+        int maxPaths = this.getMaxPaths();
+
+        ThermalSourceIndex.SectionWatch watch = index.watch(snapshot.getSections());
+        this.asyncSpread = SpreadExecutor.submit(() -> this.spreadAsync(snapshot, work, modCount, maxPaths, watch));
+        if (this.asyncSpread != null)
+        {   this.asyncSpreadWatch = watch;
+        }
+        else index.unwatch(watch);
+    }
+
+    /**
+     * Spreads the volume as far as possible within the copied sections. Runs on a worker thread
+     */
+    protected AsyncSpreadResult spreadAsync(SectionSnapshot snapshot, SpreadVolume volume, int modCount, int maxPaths, ThermalSourceIndex.SectionWatch watch)
+    {
+        BlockPos.MutableBlockPos pathPos = new BlockPos.MutableBlockPos();
+        LongArrayList removed = new LongArrayList();
+        boolean progressed = false;
+        boolean changed = true;
+        while (changed && !watch.isChanged())
+        {
+            changed = false;
+            for (int i = 0; i < volume.activeSize(); i++)
+            {
+                long packedPos = volume.getPos(i);
+                // Paths outside the copied sections are left for the next task
+                if (volume.isFrozen(i) || !snapshot.canSpreadAt(packedPos)) continue;
+
+                pathPos.set(BlockPos.getX(packedPos), BlockPos.getY(packedPos), BlockPos.getZ(packedPos));
+                if (volume.activeSize() < maxPaths && this.isWithinRange(pathPos.getX(), pathPos.getY(), pathPos.getZ(), volume.getOrigin(i))
+                && !this.spreadPath(snapshot, volume, i, snapshot.getBlockState(pathPos), pathPos))
+                {   volume.remove(i);
+                    removed.add(packedPos);
+                    i--;
+                }
+                else volume.setFrozen(i, true);
+                changed = true;
+            }
+            progressed |= changed;
+        }
+        return new AsyncSpreadResult(volume, removed, modCount, progressed);
+    }
+
+    protected record AsyncSpreadResult(SpreadVolume volume, LongArrayList removed, int modCount, boolean progressed)
+    {}
+
+    /**
+     * Keeps the saved form of the volume up-to-date, and checks a restored volume against the world once its chunks are loaded.<br>
+     * If a restored volume doesn't match, it is rebuilt.
+     */
+    protected void tickSavedVolume()
+    {
+        if (!this.fingerprintsValidated)
+        {
+            if (!this.areFingerprintChunksLoaded()) return;
+
+            Long2IntOpenHashMap fingerprints = this.computeFingerprints();
+            Integer skyFingerprint = this.computeSkyFingerprint();
+            if (fingerprints == null || skyFingerprint == null) return;
+
+            this.fingerprintsValidated = true;
+            if (!fingerprints.equals(this.fingerprints) || skyFingerprint != this.skyFingerprint)
+            {   this.savedVolume = null;
+                this.forceUpdate();
+            }
+            else this.recordFingerprintChanges();
+            return;
+        }
+
+        if (this.ticksExisted % 20 != 0 || volume.isEmpty() || volume.frozenSize() < volume.activeSize()) return;
+
+        // The volume changed, so it is saved and hashed again
+        if (this.savedVolumeModCount != volume.getModCount())
+        {
+            if (this.ticksExisted % 100 != 0) return;
+
+            Long2IntOpenHashMap fingerprints = this.computeFingerprints();
+            Integer skyFingerprint = this.computeSkyFingerprint();
+            if (fingerprints == null || skyFingerprint == null) return;
+
+            this.savedVolume = volume.serialize(this.getBlockPos());
+            this.savedVolumeModCount = volume.getModCount();
+            this.fingerprints = fingerprints;
+            this.skyFingerprint = skyFingerprint;
+            this.recordFingerprintChanges();
+        }
+        // Only sections with block changes are hashed again, and the volume doesn't need to be saved again
+        else if (this.savedVolume != null)
+        {
+            ThermalSourceIndex index = ThermalSourceIndex.get(level);
+            for (Long2IntMap.Entry entry : this.fingerprintChanges.long2IntEntrySet())
+            {
+                long section = entry.getLongKey();
+                int changes = index.getSectionChangeCount(section);
+                if (changes != entry.getIntValue())
                 {
-                    /*
-                     Spreading algorithm
-                     */
-                    if (workingChunk == null || !workingChunk.getPos().equals(new ChunkPos(pathPos)))
-                    {   workingChunk = WorldHelper.getChunk(level, pathPos);
-                    }
-                    BlockState state = workingChunk != null ? workingChunk.getBlockState(pathPos) : level.getBlockState(pathPos);
-
-                    // Build a map of what positions can see the sky
-                    Pair<Integer, Integer> flatPos = Pair.of(spX, spZ);
-                    Pair<Integer, Boolean> seeSkyState = seeSkyMap.get(flatPos);
-                    boolean canSeeSky;
-                    if (seeSkyState == null || (seeSkyState.getFirst() < spY != seeSkyState.getSecond()))
-                    {   seeSkyMap.put(flatPos, Pair.of(spY, canSeeSky = WorldHelper.canSeeSky(level, pathPos.above(), 64)));
-                    }
-                    else
-                    {   canSeeSky = seeSkyState.getSecond();
+                    Integer fingerprint = this.computeSectionFingerprint(section);
+                    if (fingerprint != null)
+                    {   this.fingerprints.put(section, (int) fingerprint);
+                        entry.setValue(changes);
                     }
+                }
+            }
+            // Sky access can change in sections far above the volume, so it is re-checked on its own
+            if (this.ticksExisted % 100 == 0)
+            {
+                Integer skyFingerprint = this.computeSkyFingerprint();
+                if (skyFingerprint != null)
+                {   this.skyFingerprint = skyFingerprint;
+                }
+            }
+        }
+    }
 
-                    if (!canSeeSky || isPipe(state))
-                    {
-                        // Try to spread in every direction from the current position
-                        for (int d = 0; d < DIRECTIONS.length; d++)
-                        {
-                            Direction direction = DIRECTIONS[d];
-
-                            // Don't try to spread backwards
-                            Direction pathDir = spreadPath.direction;
-                            if (direction.getAxis() == pathDir.getAxis() && direction != pathDir) continue;
-
-                            BlockPos tryPos = pathPos.relative(direction);
-
-                            // Avoid duplicate paths (ArrayList isn't duplicate-safe like Sets/Maps)
-                            // .add() functions to both add the path and check if it's already in the list
-                            if (!pathLookup.contains(tryPos))
-                            {
-                                SpreadPath newPath = new SpreadPath(tryPos, direction).setOrigin(spreadPath.origin);
-
-                                // If the BlockState is a pipe, check if the new path is following the direction of the pipe
-                                if (!WorldHelper.isSpreadBlocked(level, state, pathPos, direction, spreadPath.direction)
-                                && this.isValidPipeAt(tryPos, state, newPath, direction) && pathLookup.add(tryPos))
-                                {   // Add the new path to the list
-                                    paths.add(newPath);
-                                }
-                            }
-                        }
-                    }
-                    // Remove this path if it has skylight access
-                    else
-                    {   pathLookup.remove(pathPos);
-                        paths.remove(i);
-                        i--;
-                        continue;
-                    }
+    /**
+     * Hashes the blocks that decide the shape of the volume: the blocks in it, and the blocks next to it that it couldn't spread into.<br>
+     * Each section's hash only covers blocks in that section, so a section can be hashed again on its own with {@link #computeSectionFingerprint(long)}.
+     * @return A map of section -> fingerprint, or null if any of the blocks are in unloaded chunks
+     */
+    @Nullable
+    protected Long2IntOpenHashMap computeFingerprints()
+    {
+        Long2IntOpenHashMap fingerprints = new Long2IntOpenHashMap();
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        ChunkAccess chunk = null;
+        for (int i = 0; i < volume.size(); i++)
+        {
+            long pathPos = volume.getPos(i);
+            for (int d = -1; d < DIRECTIONS.length; d++)
+            {
+                long packedPos = d < 0 ? pathPos : BlockPos.offset(pathPos, DIRECTIONS[d]);
+                if (d >= 0 && volume.contains(packedPos)) continue;
+
+                pos.set(BlockPos.getX(packedPos), BlockPos.getY(packedPos), BlockPos.getZ(packedPos));
+                if (chunk == null || chunk.getPos().x != pos.getX() >> 4 || chunk.getPos().z != pos.getZ() >> 4)
+                {   chunk = WorldHelper.getChunk(level, pos);
+                    if (chunk == null) return null;
                 }
-                // Track frozen paths to know when the Hearth is done spreading
-                spreadPath.frozen = true;
-                this.frozenPaths++;
+                fingerprints.addTo(SectionPos.blockToSection(packedPos), getBlockFingerprint(packedPos, chunk.getBlockState(pos)));
             }
+        }
+        return fingerprints;
+    }
 
-            /*
-             Give insulation & spawn particles
-             */
-            finally
+    /**
+     * Hashes the blocks of one section the same way as {@link #computeFingerprints()}, by checking each block in it against the volume
+     * @return The section's fingerprint, or null if its chunk isn't loaded
+     */
+    @Nullable
+    protected Integer computeSectionFingerprint(long section)
+    {
+        ChunkAccess chunk = WorldHelper.getChunk(level, SectionPos.x(section), SectionPos.z(section));
+        if (chunk == null) return null;
+
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        int minX = SectionPos.sectionToBlockCoord(SectionPos.x(section));
+        int minY = SectionPos.sectionToBlockCoord(SectionPos.y(section));
+        int minZ = SectionPos.sectionToBlockCoord(SectionPos.z(section));
+        int fingerprint = 0;
+        for (int x = minX; x < minX + 16; x++)
+        for (int y = minY; y < minY + 16; y++)
+        for (int z = minZ; z < minZ + 16; z++)
+        {
+            long packedPos = BlockPos.asLong(x, y, z);
+            // Blocks next to the volume are hashed once for each path they border
+            int uses = 1;
+            if (!volume.contains(packedPos))
             {
-                // Air Particles
-                if (this.getLevel().isClientSide && showParticles)
-                {   Random rand = new Random();
-                    if (!(Minecraft.getInstance().options.renderDebug && ConfigSettings.HEARTH_DEBUG.get()))
-                    {   this.spawnAirParticle(spX, spY, spZ, rand);
-                    }
+                uses = 0;
+                for (int d = 0; d < DIRECTIONS.length; d++)
+                {   if (volume.contains(BlockPos.offset(packedPos, DIRECTIONS[d]))) uses++;
                 }
             }
+            if (uses > 0)
+            {   fingerprint += uses * getBlockFingerprint(packedPos, chunk.getBlockState(pos.set(x, y, z)));
+            }
         }
+        return fingerprint;
+    }
+
+    private static int getBlockFingerprint(long pos, BlockState state)
+    {   return (int) HashCommon.mix(pos * 31 + Block.getId(state));
+    }
+
+    /**
+     * Hashes the height of the highest sky-blocking block in each column of the volume, since paths that can see the sky are removed
+     * @return The fingerprint, or null if any of the columns are in unloaded chunks
+     */
+    @Nullable
+    protected Integer computeSkyFingerprint()
+    {
+        SkyOcclusionCache skyCache = SkyOcclusionCache.get(level);
+        LongOpenHashSet columns = new LongOpenHashSet();
+        ChunkAccess chunk = null;
+        int fingerprint = 0;
+        for (int i = 0; i < volume.size(); i++)
+        {
+            long pathPos = volume.getPos(i);
+            int x = BlockPos.getX(pathPos), z = BlockPos.getZ(pathPos);
+            if (!columns.add(BlockPos.asLong(x, 0, z))) continue;
+
+            if (chunk == null || chunk.getPos().x != x >> 4 || chunk.getPos().z != z >> 4)
+            {   chunk = WorldHelper.getChunk(level, x >> 4, z >> 4);
+                if (chunk == null) return null;
+            }
+            fingerprint += (int) HashCommon.mix(BlockPos.asLong(x, skyCache.getOccluderY(chunk, x, z), z));
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Remembers the change counters of the hashed sections, so only sections that change later are hashed again
+     */
+    private void recordFingerprintChanges()
+    {
+        ThermalSourceIndex index = ThermalSourceIndex.get(level);
+        this.fingerprintChanges.clear();
+        for (LongIterator iterator = this.fingerprints.keySet().iterator(); iterator.hasNext(); )
+        {   long section = iterator.nextLong();
+            this.fingerprintChanges.put(section, index.getSectionChangeCount(section));
+        }
+    }
+
+    private boolean areFingerprintChunksLoaded()
+    {
+        for (LongIterator iterator = this.fingerprints.keySet().iterator(); iterator.hasNext(); )
+        {   long section = iterator.nextLong();
+            if (WorldHelper.getChunk(level, SectionPos.x(section), SectionPos.z(section)) == null) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Restores a volume written by {@link #saveAdditional(CompoundTag)}. It is checked against the world once its chunks are loaded
+     */
+    protected void loadVolume(CompoundTag volumeTag, CompoundTag fingerprintTag)
+    {
+        this.volume.deserialize(volumeTag, this.getBlockPos());
+        this.fingerprints.clear();
+        long[] sections = fingerprintTag.getLongArray("Sections");
+        int[] fingerprints = fingerprintTag.getIntArray("Blocks");
+        for (int i = 0; i < Math.min(sections.length, fingerprints.length); i++)
+        {   this.fingerprints.put(sections[i], fingerprints[i]);
+        }
+        this.skyFingerprint = fingerprintTag.getInt("Sky");
+        this.fingerprintsValidated = false;
+        this.savedVolume = volumeTag;
+        this.savedVolumeModCount = this.volume.getModCount();
+    }
+
+    private CompoundTag saveFingerprints()
+    {
+        long[] sections = new long[this.fingerprints.size()];
+        int[] fingerprints = new int[this.fingerprints.size()];
+        int i = 0;
+        for (Long2IntMap.Entry entry : this.fingerprints.long2IntEntrySet())
+        {   sections[i] = entry.getLongKey();
+            fingerprints[i++] = entry.getIntValue();
+        }
+        CompoundTag tag = new CompoundTag();
+        tag.putLongArray("Sections", sections);
+        tag.putIntArray("Blocks", fingerprints);
+        tag.putInt("Sky", this.skyFingerprint);
+        return tag;
+    }
+
+    /**
+     * Re-connects the children of paths that have been removed from the volume
+     */
+    protected void reattachChildren(LongArrayList removedPaths)
+    {
+        LongArrayList children = new LongArrayList();
+        for (int i = 0; i < removedPaths.size(); i++)
+        {   this.findChildren(removedPaths.getLong(i), children, false);
+        }
+        if (!children.isEmpty())
+        {   this.reattachPaths(children);
+        }
+    }
+
+    /**
+     * Repairs the volume around blocks that have changed, instead of rebuilding it from scratch.<br>
+     * Paths at a changed block start spreading again, so opened spaces are flooded from there.
+     * If a block can no longer be spread through, only the paths that lost their connection to the hearth are removed.
+     */
+    protected void repairPaths()
+    {
+        LongArrayList children = new LongArrayList();
+        for (int i = 0; i < this.queuedUpdates.size(); i++)
+        {
+            long pos = this.queuedUpdates.get(i).asLong();
+            int x = BlockPos.getX(pos);
+            int y = BlockPos.getY(pos);
+            int z = BlockPos.getZ(pos);
+
+            // Sky access may have changed for the whole column below the block
+            volume.removeSkyState(x, z);
+            for (int dy = 0; dy <= 64; dy++)
+            {   this.unfreezePath(BlockPos.asLong(x, y - dy, z));
+            }
+
+            // Paths that can no longer spread from this block lose their connection
+            children.clear();
+            this.findChildren(pos, children, true);
+            if (!children.isEmpty())
+            {   this.reattachPaths(children);
+            }
+        }
+        this.queuedUpdates.clear();
+    }
+
+    /**
+     * Adds the paths that spread directly from the given position to the list
+     * @param onlyBlocked If true, only adds paths that the position is no longer able to spread to
+     */
+    protected void findChildren(long pos, LongArrayList children, boolean onlyBlocked)
+    {
+        for (int d = 0; d < DIRECTIONS.length; d++)
+        {
+            Direction direction = DIRECTIONS[d];
+            long child = BlockPos.offset(pos, direction);
+            int index = volume.indexOf(child);
+            if (index != -1 && volume.getDirection(index) == direction
+            && (!onlyBlocked || !this.canSpreadFrom(pos, direction)))
+            {   children.add(child);
+            }
+        }
+    }
+
+    /**
+     * Re-connects everything that spread from the given paths to the rest of the volume, after they have lost their parent.<br>
+     * Paths that can still be reached from outside are given a new parent. Paths that can't be reached anymore are removed.
+     * @return True if any paths were removed
+     */
+    protected boolean reattachPaths(LongArrayList roots)
+    {
+        SpreadVolume volume = this.volume;
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+
+        // Collect every path that descends from the roots
+        LongOpenHashSet detached = new LongOpenHashSet();
+        for (int i = 0; i < roots.size(); i++)
+        {
+            long root = roots.getLong(i);
+            if (volume.contains(root) && detached.add(root))
+            {   queue.enqueue(root);
+            }
+        }
+        LongArrayList children = new LongArrayList();
+        while (!queue.isEmpty())
+        {
+            children.clear();
+            this.findChildren(queue.dequeueLong(), children, false);
+            for (int i = 0; i < children.size(); i++)
+            {
+                long child = children.getLong(i);
+                if (detached.add(child))
+                {   queue.enqueue(child);
+                }
+            }
+        }
+
+        // Attach paths that can be spread to from outside the detached area
+        LongOpenHashSet attached = new LongOpenHashSet();
+        for (LongIterator iterator = detached.iterator(); iterator.hasNext(); )
+        {
+            long pos = iterator.nextLong();
+            for (int d = 0; d < DIRECTIONS.length; d++)
+            {
+                Direction direction = DIRECTIONS[d];
+                long parent = BlockPos.offset(pos, direction.getOpposite());
+                if (!detached.contains(parent) && this.canSpreadFrom(parent, direction))
+                {   this.attachPath(pos, direction, parent);
+                    attached.add(pos);
+                    queue.enqueue(pos);
+                    break;
+                }
+            }
+        }
+        // Spread through the detached area from the attached paths
+        while (!queue.isEmpty())
+        {
+            long pos = queue.dequeueLong();
+            for (int d = 0; d < DIRECTIONS.length; d++)
+            {
+                Direction direction = DIRECTIONS[d];
+                long child = BlockPos.offset(pos, direction);
+                if (detached.contains(child) && !attached.contains(child) && this.canSpreadFrom(pos, direction))
+                {   this.attachPath(child, direction, pos);
+                    attached.add(child);
+                    queue.enqueue(child);
+                }
+            }
+        }
+
+        // Remove paths that can't be reached anymore
+        boolean removedAny = false;
+        for (LongIterator iterator = detached.iterator(); iterator.hasNext(); )
+        {
+            long pos = iterator.nextLong();
+            if (!attached.contains(pos))
+            {   volume.remove(pos);
+                removedAny = true;
+            }
+        }
+        return removedAny;
+    }
+
+    /**
+     * Gives a path a new parent. The path is unfrozen, since it may be able to spread to new places from its new direction
+     */
+    private void attachPath(long pos, Direction direction, long parent)
+    {
+        long origin = this.isPipe(level.getBlockState(BlockPos.of(parent))) ? pos : volume.getOrigin(volume.indexOf(parent));
+        int index = volume.activate(volume.indexOf(pos));
+        volume.setDirection(index, direction);
+        volume.setOrigin(index, origin);
+        volume.setFrozen(index, false);
+    }
+
+    private void unfreezePath(long pos)
+    {
+        int index = volume.indexOf(pos);
+        if (index != -1)
+        {   volume.setFrozen(volume.activate(index), false);
+        }
+    }
+
+    /**
+     * @return True if the path at the given position is able to spread in the given direction
+     */
+    protected boolean canSpreadFrom(long pos, Direction direction)
+    {
+        int index = volume.indexOf(pos);
+        if (index == -1) return false;
+
+        Direction pathDir = volume.getDirection(index);
+        // Don't spread backwards
+        if (direction.getAxis() == pathDir.getAxis() && direction != pathDir) return false;
+
+        BlockPos blockPos = BlockPos.of(pos);
+        if (!this.isWithinRange(blockPos.getX(), blockPos.getY(), blockPos.getZ(), volume.getOrigin(index))) return false;
+
+        BlockState state = level.getBlockState(blockPos);
+        return !WorldHelper.isSpreadBlocked(level, state, blockPos, direction, pathDir)
+            && this.isValidPipeAt(state, direction);
+    }
+
+    /**
+     * @return True if a path at the given position is close enough to its origin and the hearth to keep spreading
+     */
+    protected boolean isWithinRange(int x, int y, int z, long origin)
+    {
+        int originX = BlockPos.getX(origin);
+        int originY = BlockPos.getY(origin);
+        int originZ = BlockPos.getZ(origin);
+        int spreadRange = this.getSpreadRange();
+        int maxRange = this.getMaxRange();
+        BlockPos pos = this.getBlockPos();
+        return CSMath.getDistanceSqr(x, y, z, originX, originY, originZ) < spreadRange * (double) spreadRange
+            && Math.abs(originX - pos.getX()) <= maxRange
+            && Math.abs(originY - pos.getY()) <= maxRange
+            && Math.abs(originZ - pos.getZ()) <= maxRange;
     }
 
     public void checkInputSignal()
     {
+        this.wake();
         boolean wasBackPowered = this.isBackPowered;
         boolean wasSidePowered = this.isSidePowered;
         // Get signals
@@ -594,6 +1310,7 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
     @Override
     public void setChanged()
     {
+        this.wake();
         super.setChanged();
         this.checkForFuel();
     }
@@ -623,6 +1340,7 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
                 effects.clear();
                 // Convert to NBT and back again to create new instances of the effects (otherwise we would be ticking down the global instances)
                 effects.addAll(itemEffects.stream().map(eff -> eff.save(new CompoundTag())).map(MobEffectInstance::load).toList());
+                this.effectsTickedAt = this.ticksExisted;
                 WorldHelper.syncBlockEntityData(this);
             }
             else if (fuelStack.is(Items.MILK_BUCKET) && !effects.isEmpty())
@@ -677,12 +1395,19 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
 
     protected void tickDrainFuel()
     {
-        int fuelInterval = ConfigSettings.HEARTH_FUEL_INTERVAL.get();
+        int fuelInterval = this.getFuelInterval();
         if (fuelInterval > 0 && this.ticksExisted % fuelInterval == 0)
         {   this.drainFuel();
         }
     }
 
+    /**
+     * The number of ticks between each unit of fuel used
+     */
+    protected int getFuelInterval()
+    {   return ConfigSettings.HEARTH_FUEL_INTERVAL.get();
+    }
+
     protected void resetFuelStatus()
     {
         if (this.level == null || !this.level.isClientSide)
@@ -692,28 +1417,68 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
         }
     }
 
-    void insulatePlayer(Player player)
+    /**
+     * @return True if the source is running and should insulate the players in its volume.
+     * Checked by the level's {@link ThermalSourceIndex} before each insulation pass
+     */
+    public boolean canInsulatePlayers()
+    {
+        return !this.dormant && !this.topBlocked && (this.getColdFuel() > 0 || this.getHotFuel() > 0)
+            && (this.shouldUseColdFuel || this.shouldUseHotFuel || (ConfigSettings.SMART_HEARTH.get() && this.isPlayerNearby));
+    }
+
+    /**
+     * Called before the source is given the players in its volume. Smart hearths work out which fuel to use from those players
+     */
+    public void beginInsulatingPlayers()
+    {
+        this.insulatingFromColdFuel = this.shouldUseColdFuel;
+        this.insulatingFromHotFuel = this.shouldUseHotFuel;
+        // Reset the usage status for cold/hot fuel
+        if (ConfigSettings.SMART_HEARTH.get())
+        {   this.resetFuelStatus();
+        }
+    }
+
+    /**
+     * Called once every player in the source's volume has been insulated
+     */
+    public void finishInsulatingPlayers()
+    {
+        if (this.insulatingFromColdFuel != this.shouldUseColdFuel || this.insulatingFromHotFuel != this.shouldUseHotFuel)
+        {   this.updateFuelState();
+        }
+    }
+
+    /**
+     * Applies the source's effects and insulation to a player in its volume, and decides the smart hearth's fuel use
+     */
+    public void insulatePlayer(Player player)
     {
         for (int i = 0; i < effects.size(); i++)
         {
             MobEffectInstance effect = effects.get(i);
-            player.addEffect(new MobEffectInstance(effect.getEffect(),
-                                                   effect.getEffect() == MobEffects.NIGHT_VISION
-                                                       ? 399
-                                                       : 119,
-                                                   effect.getAmplifier(), effect.isAmbient(), effect.isVisible(), effect.showIcon()));
+            int duration = effect.getEffect() == MobEffects.NIGHT_VISION ? 399 : 119;
+            // Only re-apply the effect once it has run down a bit, instead of every time the player is insulated
+            MobEffectInstance current = player.getEffect(effect.getEffect());
+            if (current == null || current.getAmplifier() < effect.getAmplifier()
+            || !current.isInfiniteDuration() && current.getDuration() < duration - EFFECT_REFRESH_INTERVAL)
+            {
+                player.addEffect(new MobEffectInstance(effect.getEffect(), duration,
+                                                       effect.getAmplifier(), effect.isAmbient(), effect.isVisible(), effect.showIcon()));
+            }
         }
 
         if (!ConfigSettings.SMART_HEARTH.get() || this.shouldInsulatePlayer(player))
         {
             int maxEffect = this.getMaxInsulationLevel() - 1;
             int effectLevel = (int) Math.min(maxEffect, (insulationLevel / (double) this.getInsulationTime()) * maxEffect);
-            if (shouldUseColdFuel)
-            {   player.addEffect(new MobEffectInstance(ModEffects.FRIGIDNESS, 60, effectLevel, false, false, true));
-            }
-            if (shouldUseHotFuel)
-            {   player.addEffect(new MobEffectInstance(ModEffects.WARMTH, 60, effectLevel, false, false, true));
-            }
+            // The temperature cap only updates the player's TempModifier and display effects if the level changes
+            EntityTempManager.getTemperatureCap(player).ifPresent(cap ->
+            {   cap.refreshThermalInsulation(shouldUseColdFuel ? effectLevel + 1 : 0,
+                                             shouldUseHotFuel ? effectLevel + 1 : 0,
+                                             this.level.getGameTime(), 60);
+            });
         }
     }
 
@@ -738,19 +1503,19 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
         return shouldInsulate.get();
     }
 
-    protected boolean isValidPipeAt(BlockPos newPos, BlockState fromState, SpreadPath newPath, Direction direction)
+    /**
+     * If the given state is a pipe, checks whether a path can leave it in the given direction.<br>
+     * Paths that leave a pipe use the end of the pipe as their new origin.
+     */
+    protected boolean isValidPipeAt(BlockState fromState, Direction direction)
     {
         if (!isPipe(fromState)) return true;
         if (CompatManager.isCreateLoaded())
         {
             Block block = fromState.getBlock();
-            if ((block instanceof FluidPipeBlock && fromState.getValue(PipeBlock.PROPERTY_BY_DIRECTION.get(direction)))
-            || (block instanceof GlassFluidPipeBlock && fromState.getValue(RotatedPillarBlock.AXIS) == direction.getAxis())
-            || (block instanceof EncasedPipeBlock && fromState.getValue(EncasedPipeBlock.FACING_TO_PROPERTY_MAP.get(direction))))
-            {   newPath.setOrigin(newPos);
-                return true;
-            }
-            return false;
+            return (block instanceof FluidPipeBlock && fromState.getValue(PipeBlock.PROPERTY_BY_DIRECTION.get(direction)))
+                || (block instanceof GlassFluidPipeBlock && fromState.getValue(RotatedPillarBlock.AXIS) == direction.getAxis())
+                || (block instanceof EncasedPipeBlock && fromState.getValue(EncasedPipeBlock.FACING_TO_PROPERTY_MAP.get(direction)));
         }
         return true;
     }
@@ -772,7 +1537,6 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
     {
         if (!this.registeredLocation)
         {   levelPos = Pair.of(this.getBlockPos(), level.dimension().location());
-            HearthSaveDataHandler.HEARTH_POSITIONS.add(levelPos);
             this.x = this.getBlockPos().getX();
             this.y = this.getBlockPos().getY();
             this.z = this.getBlockPos().getZ();
@@ -783,53 +1547,55 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
     private void unregisterLocation()
     {
         if (this.registeredLocation)
-        {   HearthSaveDataHandler.HEARTH_POSITIONS.remove(levelPos);
-            this.registeredLocation = false;
+        {   this.registeredLocation = false;
         }
     }
 
     protected void tickPotionEffects()
     {
-        if (!effects.isEmpty())
+        if (!effects.isEmpty() && this.ticksExisted - this.effectsTickedAt >= EFFECT_TICK_INTERVAL)
+        {   this.countDownEffects();
+        }
+    }
+
+    /**
+     * Subtracts the ticks since the effects were last counted down from their durations, and removes expired effects
+     */
+    protected void countDownEffects()
+    {
+        int elapsed = this.ticksExisted - this.effectsTickedAt;
+        this.effectsTickedAt = this.ticksExisted;
+        if (elapsed <= 0) return;
+
+        for (int i = effects.size() - 1; i >= 0; i--)
         {
-            effects.removeIf(effect ->
-            {
-                try
-                {   TICK_DOWN_EFFECT.invoke(effect);
-                    if (effect.getDuration() <=0) return true;
-                }
-                catch (Exception ignored) {}
-                return false;
-            });
+            MobEffectInstance effect = effects.get(i);
+            if (effect.isInfiniteDuration()) continue;
+
+            int duration = effect.getDuration() - elapsed;
+            if (duration <= 0)
+            {   effects.remove(i);
+            }
+            else ((MixinMobEffectDuration) effect).setDuration(duration);
         }
     }
 
     void resetPaths()
-    {   // Reset cooldown
-        this.rebuildCooldown = 100;
-
+    {
         // Clear paths & lookup
-        this.paths.clear();
-        this.pathLookup.clear();
+        this.volume.clear();
         if (this.forceRebuild)
-        {   seeSkyMap.clear();
+        {   volume.clearSkyStates();
         }
         else for (int i = 0; i < this.queuedUpdates.size(); i++)
         {
             BlockPos pos = this.queuedUpdates.get(i);
-            seeSkyMap.remove(Pair.of(pos.getX(), pos.getZ()));
+            volume.removeSkyState(pos.getX(), pos.getZ());
         }
 
         // Un-freeze paths so areas can be re-checked
-        this.frozenPaths = 0;
         this.spreading = true;
 
-        // Tell client to reset paths too
-        this.sendResetPacket();
-        if (this.level.isClientSide)
-        {   HearthDebugRenderer.updatePaths(this);
-        }
-
         this.forceRebuild = false;
         this.queuedUpdates.clear();
     }
@@ -913,7 +1679,8 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
      * Negative numbers are cold, positive numbers are hot
      */
     public void addFuel(int amount)
-    {   if (amount > 0)
+    {   this.wake();
+        if (amount > 0)
         {   this.setHotFuelAndUpdate(this.getHotFuel() + amount);
         }
         else if (amount < 0)
@@ -950,12 +1717,15 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
         // A smokestack has been removed
         else if (!this.hasSmokestack && hadSmokestack)
         {
-            this.forceUpdate();
-            this.resetPaths();
             this.unregisterLocation();
             if (this.level.isClientSide)
             {   ClientOnlyHelper.removeHearthPosition(this.getBlockPos());
             }
+            // The client's volume is replaced by the server
+            else
+            {   this.forceUpdate();
+                this.resetPaths();
+            }
         }
         return this.hasSmokestack;
     }
@@ -967,7 +1737,8 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
         ParticleStatus status = Minecraft.getInstance().options.particles().get();
         if (status == ParticleStatus.MINIMAL) return;
 
-        RandomSource rand = this.level.random;
+        ThermalParticleEmitter emitter = ThermalParticleEmitter.get();
+        Random rand = emitter.getRandom();
         if (this.shouldUseColdFuel)
         {
             if (rand.nextDouble() < this.getColdFuel() / 3000d)
@@ -977,7 +1748,7 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
                 double d3 = (rand.nextDouble() - 0.5) / 4;
                 double d4 = (rand.nextDouble() - 0.5) / 4;
                 double d5 = (rand.nextDouble() - 0.5) / 4;
-                level.addParticle(ParticleTypesInit.STEAM.get(), d0 + d3, d1 + d4, d2 + d5, 0.0D, 0.04D, 0.0D);
+                emitter.emit(ParticleTypesInit.STEAM.get(), d0 + d3, d1 + d4, d2 + d5, 0.0D, 0.04D, 0.0D);
             }
         }
         if (this.shouldUseHotFuel)
@@ -992,7 +1763,7 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
                 SimpleParticleType particle = rand.nextDouble() < 0.5
                                               ? ParticleTypes.LARGE_SMOKE
                                               : ParticleTypes.SMOKE;
-                level.addParticle(particle, d0 + d3, d1 + d4, d2 + d5, 0.0D, 0.0D, 0.0D);
+                emitter.emit(particle, d0 + d3, d1 + d4, d2 + d5, 0.0D, 0.0D, 0.0D);
             }
         }
     }
@@ -1004,7 +1775,9 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
     @OnlyIn(Dist.CLIENT)
     public void spawnAirParticle(int x, int y, int z, Random rand)
     {
-        if (rand.nextFloat() > (spreading ? 0.016f : 0.032f)) return;
+        ThermalParticleEmitter emitter = ThermalParticleEmitter.get();
+        // Clients have every position in the volume, including the ones the server retired once it finished spreading
+        if (!emitter.shouldEmit(x + 0.5, y + 0.5, z + 0.5, 0.016f)) return;
 
         float xr = rand.nextFloat();
         float yr = rand.nextFloat();
@@ -1012,7 +1785,7 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
         float xm = rand.nextFloat() / 20 - 0.025f;
         float zm = rand.nextFloat() / 20 - 0.025f;
 
-        level.addParticle(this.getAirParticle(), false, x + xr, y + yr, z + zr, xm, 0, zm);
+        emitter.emit(this.getAirParticle(), x + xr, y + yr, z + zr, xm, 0, zm);
     }
 
     @Override
@@ -1034,6 +1807,11 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
         this.coldFuel = FluidStack.loadFluidStackFromNBT(tag.getCompound("ColdFuel"));
         this.hotFuel = FluidStack.loadFluidStackFromNBT(tag.getCompound("HotFuel"));
         this.insulationLevel = tag.getInt("InsulationLevel");
+        this.shouldUseColdFuel = tag.getBoolean("ShouldUseColdFuel");
+        this.shouldUseHotFuel = tag.getBoolean("ShouldUseHotFuel");
+        if (tag.contains("Volume", 10) && tag.contains("VolumeFingerprints", 10))
+        {   this.loadVolume(tag.getCompound("Volume"), tag.getCompound("VolumeFingerprints"));
+        }
     }
 
     @Override
@@ -1041,24 +1819,59 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
     {   super.saveAdditional(tag);
         ContainerHelper.saveAllItems(tag, this.items);
         saveEffects(tag);
-        tag.put("ColdFuel", this.coldFuel.writeToNBT(new CompoundTag()));
-        tag.put("HotFuel", this.hotFuel.writeToNBT(new CompoundTag()));
-        tag.putInt("InsulationLevel", this.insulationLevel);
+        // A dormant source is saved as if it had been ticking, without catching it up
+        long dormantTicks = this.getDormantTicks();
+        long drains = this.getDormantFuelDrains(dormantTicks);
+        tag.put("ColdFuel", saveFuel(this.coldFuel, this.shouldUseColdFuel ? drains : 0));
+        tag.put("HotFuel", saveFuel(this.hotFuel, this.shouldUseHotFuel ? drains : 0));
+        tag.putInt("InsulationLevel", this.getCaughtUpInsulationLevel(dormantTicks));
+        tag.putBoolean("ShouldUseColdFuel", this.shouldUseColdFuel);
+        tag.putBoolean("ShouldUseHotFuel", this.shouldUseHotFuel);
+        // Only save the volume if it hasn't changed since it was last hashed.
+        // Block changes that didn't change the volume only update the fingerprints
+        if (this.savedVolume != null && this.savedVolumeModCount == this.volume.getModCount())
+        {   tag.put("Volume", this.savedVolume);
+            tag.put("VolumeFingerprints", this.saveFingerprints());
+        }
     }
 
+    private static CompoundTag saveFuel(FluidStack fuel, long drains)
+    {
+        if (drains <= 0)
+        {   return fuel.writeToNBT(new CompoundTag());
+        }
+        FluidStack drained = fuel.copy();
+        drained.setAmount((int) Math.max(0, fuel.getAmount() - drains));
+        return drained.writeToNBT(new CompoundTag());
+    }
+
+    /**
+     * Saves the effects with the durations they have been counted down to, without counting them down
+     */
     void saveEffects(CompoundTag tag)
     {
-        if (!this.effects.isEmpty())
-        {   ListTag list = new ListTag();
-            for (MobEffectInstance effect : this.effects)
-            {   list.add(effect.save(new CompoundTag()));
+        int elapsed = Math.max(0, this.ticksExisted - this.effectsTickedAt);
+        ListTag list = new ListTag();
+        for (MobEffectInstance effect : this.effects)
+        {
+            if (elapsed > 0 && !effect.isInfiniteDuration())
+            {
+                int duration = effect.getDuration() - elapsed;
+                if (duration <= 0) continue;
+
+                effect = new MobEffectInstance(effect);
+                ((MixinMobEffectDuration) effect).setDuration(duration);
             }
-            tag.put("Effects", list);
+            list.add(effect.save(new CompoundTag()));
+        }
+        if (!list.isEmpty())
+        {   tag.put("Effects", list);
         }
     }
 
     void loadEffects(CompoundTag tag)
     {   this.effects.clear();
+        this.effectsTickedAt = this.ticksExisted;
         if (tag.contains("Effects"))
         {   ListTag list = tag.getList("Effects", 10);
             for (int i = 0; i < list.size(); i++)
@@ -1120,35 +1933,145 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
 
     public void replacePaths(ArrayList<SpreadPath> newPaths)
     {
-        this.frozenPaths = 0;
-
-        this.paths.clear();
-        this.paths.addAll(newPaths);
-
-        this.pathLookup.clear();
-        this.pathLookup.addAll(newPaths.stream().map(path -> path.pos).collect(Collectors.toSet()));
+        this.volume.clear();
+        this.addPaths(newPaths);
 
         this.spreading = true;
 
         if (this.level.isClientSide)
         {   ClientOnlyHelper.addHearthPosition(this.getBlockPos());
         }
-        this.sendResetPacket();
     }
 
     public void addPath(SpreadPath path)
-    {   paths.add(path);
+    {   volume.add(path.pos.asLong(), path.direction, (path.origin != null ? path.origin : this.getBlockPos()).asLong());
     }
 
     public void addPaths(Collection<SpreadPath> newPaths)
-    {   paths.addAll(newPaths);
+    {
+        for (SpreadPath path : newPaths)
+        {   this.addPath(path);
+        }
     }
 
-    public void sendResetPacket()
-    {   if (level instanceof ServerLevel)
-        {   ColdSweatPacketHandler.INSTANCE.send(PacketDistributor.TRACKING_CHUNK.with(() ->
-                                 (LevelChunk) WorldHelper.getChunk(level, this.getBlockPos())), new HearthResetMessage(this.getBlockPos()));
+    /**
+     * Sends the volume to players that are tracking the hearth's chunk. Players that just started tracking it get the whole volume,
+     * and players that already have it only get the positions that were added or removed since the last sync.
+     */
+    protected void tickVolumeSync()
+    {
+        List<ServerPlayer> tracking = ((ServerLevel) level).getChunkSource().chunkMap.getPlayers(new ChunkPos(this.getBlockPos()), false);
+        if (tracking.isEmpty())
+        {   this.syncedPlayers.clear();
+            this.clearUnsyncedVolumeChanges();
+            return;
+        }
+
+        HearthVolumeSyncMessage delta = !this.syncedPlayers.isEmpty() && this.hasUnsyncedVolumeChanges()
+                                        ? new HearthVolumeSyncMessage(this.getBlockPos(), false, this.spreading, this.unsyncedAdded.toLongArray(), this.unsyncedRemoved.toLongArray())
+                                        : null;
+        HearthVolumeSyncMessage full = null;
+        Set<UUID> syncedPlayers = new HashSet<>();
+        for (int i = 0; i < tracking.size(); i++)
+        {
+            ServerPlayer player = tracking.get(i);
+            if (this.syncedPlayers.contains(player.getUUID()))
+            {
+                if (delta != null)
+                {   ColdSweatPacketHandler.INSTANCE.send(PacketDistributor.PLAYER.with(() -> player), delta);
+                }
+            }
+            else
+            {
+                if (full == null)
+                {   full = this.createFullVolumeSync();
+                }
+                ColdSweatPacketHandler.INSTANCE.send(PacketDistributor.PLAYER.with(() -> player), full);
+            }
+            syncedPlayers.add(player.getUUID());
         }
+        this.syncedPlayers = syncedPlayers;
+        this.syncedSpreading = this.spreading;
+        this.clearUnsyncedVolumeChanges();
+    }
+
+    /**
+     * @return A message with every position in the volume, including the ones that were retired after spreading
+     */
+    private HearthVolumeSyncMessage createFullVolumeSync()
+    {
+        long[] positions = new long[volume.size()];
+        for (int i = 0; i < positions.length; i++)
+        {   positions[i] = volume.getPos(i);
+        }
+        return new HearthVolumeSyncMessage(this.getBlockPos(), true, this.spreading, positions, new long[0]);
+    }
+
+    private boolean hasUnsyncedVolumeChanges()
+    {   return !this.unsyncedAdded.isEmpty() || !this.unsyncedRemoved.isEmpty() || this.syncedSpreading != this.spreading;
+    }
+
+    private void clearUnsyncedVolumeChanges()
+    {
+        // A rebuild can touch every position, so the sets are shrunk again afterward
+        if (!this.unsyncedAdded.isEmpty())
+        {   this.unsyncedAdded.clear();
+            this.unsyncedAdded.trim();
+        }
+        if (!this.unsyncedRemoved.isEmpty())
+        {   this.unsyncedRemoved.clear();
+            this.unsyncedRemoved.trim();
+        }
+    }
+
+    /**
+     * Records a position added to the volume, to be sent to clients on the next sync. Called by {@link ThermalSourceIndex}
+     */
+    public void onVolumePositionAdded(long pos)
+    {
+        if (this.syncedPlayers.isEmpty()) return;
+        if (!this.unsyncedRemoved.remove(pos))
+        {   this.unsyncedAdded.add(pos);
+        }
+    }
+
+    /**
+     * Records a position removed from the volume, to be sent to clients on the next sync. Called by {@link ThermalSourceIndex}
+     */
+    public void onVolumePositionRemoved(long pos)
+    {
+        if (this.syncedPlayers.isEmpty()) return;
+        if (!this.unsyncedAdded.remove(pos))
+        {   this.unsyncedRemoved.add(pos);
+        }
+    }
+
+    /**
+     * Makes sure the player is sent the whole volume, since their client's copy of the hearth may have been unloaded.<br>
+     * Changes that haven't been synced yet are sent to them again with the next delta, which is harmless.
+     */
+    public void onStartTracking(ServerPlayer player)
+    {
+        ColdSweatPacketHandler.INSTANCE.send(PacketDistributor.PLAYER.with(() -> player), this.createFullVolumeSync());
+        this.syncedPlayers.add(player.getUUID());
+    }
+
+    /**
+     * Applies a volume sent by {@link #tickVolumeSync()} to the client's copy of the hearth
+     */
+    public void applyVolumeSync(boolean full, boolean spreading, long[] added, long[] removed)
+    {
+        if (full)
+        {   this.volume.clear();
+        }
+        for (long pos : removed)
+        {   this.volume.remove(pos);
+        }
+        for (long pos : added)
+        {   this.volume.add(pos, Direction.UP, pos);
+        }
+        this.spreading = spreading;
+        HearthDebugRenderer.updatePaths(this);
     }
 
     public void sendBlockUpdate(BlockPos pos)
@@ -1160,21 +2083,61 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
         this.sendBlockUpdate(this.getBlockPos());
     }
 
+    @Override
+    public void onLoad()
+    {   super.onLoad();
+        if (this.level != null)
+        {   ThermalSourceIndex.get(this.level).addSource(this);
+        }
+    }
+
+    @Override
+    public void onChunkUnloaded()
+    {   super.onChunkUnloaded();
+        this.unregisterSource();
+    }
+
+    private void unregisterSource()
+    {
+        ThermalSourceIndex index = ThermalSourceIndex.getIfPresent(this.level);
+        if (index != null)
+        {   index.removeSource(this);
+            if (this.asyncSpreadWatch != null)
+            {   index.unwatch(this.asyncSpreadWatch);
+            }
+        }
+        if (this.asyncSpread != null)
+        {   this.asyncSpread.cancel(false);
+            this.asyncSpread = null;
+            this.asyncSpreadWatch = null;
+        }
+    }
+
     @Override
     public void setRemoved()
     {   super.setRemoved();
-        HearthSaveDataHandler.HEARTH_POSITIONS.remove(Pair.of(this.getBlockPos(), this.getLevel().dimension().location()));
+        this.unregisterSource();
         if (this.level.isClientSide)
         {   ClientOnlyHelper.removeHearthPosition(this.getBlockPos());
         }
     }
 
+    /**
+     * @return A read-only view of every position in the hearth's volume
+     */
     public Set<BlockPos> getPathLookup()
-    {   return this.pathLookup;
+    {   return this.volume.asPositionSet();
     }
 
+    /**
+     * @return A read-only view of the paths that are still being ticked
+     */
     public List<SpreadPath> getPaths()
-    {   return this.paths;
+    {   return this.volume.asPathList();
+    }
+
+    public SpreadVolume getVolume()
+    {   return this.volume;
     }
 
     public boolean isSpreading()
@@ -1239,6 +2202,9 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
         @Override
         public int fill(FluidStack fluidStack, FluidAction fluidAction)
         {
+            if (fluidAction.execute())
+            {   HearthBlockEntity.this.wake();
+            }
             if (fluidStack.getFluid().is(ModFluidTags.COLD))
             {
                 int amount = Math.min(fluidStack.getAmount(), this.getTankCapacity(0) - coldFuel.getAmount());
@@ -1286,6 +2252,9 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
         @Override
         public FluidStack drain(int amount, FluidAction fluidAction)
         {
+            if (fluidAction.execute())
+            {   HearthBlockEntity.this.wake();
+            }
             int drained = Math.min(coldFuel.getAmount(), amount);
 
             FluidStack stack = new FluidStack(coldFuel, drained);
@@ -1306,6 +2275,9 @@ public class HearthBlockEntity extends RandomizableContainerBlockEntity implemen
         @Override
         public FluidStack drain(int amount, FluidAction fluidAction)
         {
+            if (fluidAction.execute())
+            {   HearthBlockEntity.this.wake();
+            }
             int drained = Math.min(hotFuel.getAmount(), amount);
 
             FluidStack stack = new FluidStack(hotFuel, drained);
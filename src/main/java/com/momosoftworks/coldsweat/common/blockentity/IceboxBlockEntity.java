@@ -1,6 +1,7 @@
 package com.momosoftworks.coldsweat.common.blockentity;
 
 import com.momosoftworks.coldsweat.ColdSweat;
+import com.momosoftworks.coldsweat.client.particle.ThermalParticleEmitter;
 import com.momosoftworks.coldsweat.common.block.IceboxBlock;
 import com.momosoftworks.coldsweat.common.container.IceboxContainer;
 import com.momosoftworks.coldsweat.common.item.FilledWaterskinItem;
@@ -145,6 +146,7 @@ public class IceboxBlockEntity extends HearthBlockEntity implements LidBlockEnti
     public void tick(Level level, BlockState state, BlockPos pos)
     {
         super.tick(level, pos);
+        if (this.isDormant()) return;
 
         // Recheck openers
         if (!this.remove)
@@ -225,12 +227,23 @@ public class IceboxBlockEntity extends HearthBlockEntity implements LidBlockEnti
     }
 
     @Override
-    protected void tickDrainFuel()
+    protected int getFuelInterval()
+    {   return ConfigSettings.ICEBOX_FUEL_INTERVAL.get();
+    }
+
+    /**
+     * Waterskins in the inventory are processed every tick, so the icebox stays awake while it holds any
+     */
+    @Override
+    protected boolean canGoDormant()
     {
-        int fuelInterval = ConfigSettings.ICEBOX_FUEL_INTERVAL.get();
-        if (fuelInterval > 0 && this.ticksExisted % fuelInterval == 0)
-        {   this.drainFuel();
+        for (int i = 1; i < 10; i++)
+        {
+            if (!this.getItem(i).isEmpty())
+            {   return false;
+            }
         }
+        return super.canGoDormant();
     }
 
     @Override
@@ -325,11 +338,14 @@ public class IceboxBlockEntity extends HearthBlockEntity implements LidBlockEnti
         {   return;
         }
 
-        BlockPos pos = new BlockPos(x, y, z);
-        boolean onGround = !this.level.getBlockState(pos.below()).isAir();
-        if (rand.nextFloat() > (spreading ? 0.016f : 0.032f))
+        ThermalParticleEmitter emitter = ThermalParticleEmitter.get();
+        // Clients have every position in the volume, including the ones the server retired once it finished spreading,
+        // so the rate no longer doubles to make up for them
+        if (!emitter.shouldEmit(x + 0.5, y + 0.5, z + 0.5, 0.016f))
         {   return;
         }
+        BlockPos pos = new BlockPos(x, y, z);
+        boolean onGround = !this.level.getBlockState(pos.below()).isAir();
 
         float xr = rand.nextFloat();
         float yr = onGround ? 0.1f : rand.nextFloat();
@@ -337,8 +353,8 @@ public class IceboxBlockEntity extends HearthBlockEntity implements LidBlockEnti
         float xm = rand.nextFloat() / 20 - 0.025f;
         float zm = rand.nextFloat() / 20 - 0.025f;
 
-        level.addParticle(onGround ? ParticleTypesInit.GROUND_MIST.get()
-                                   : ParticleTypesInit.MIST.get(), false, x + xr, y + yr, z + zr, xm, 0, zm);
+        emitter.emit(onGround ? ParticleTypesInit.GROUND_MIST.get()
+                              : ParticleTypesInit.MIST.get(), x + xr, y + yr, z + zr, xm, 0, zm);
     }
 
     @Override
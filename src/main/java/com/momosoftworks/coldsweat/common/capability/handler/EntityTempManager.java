@@ -73,7 +73,7 @@ import java.lang.reflect.Field;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 @Mod.EventBusSubscriber
 public class EntityTempManager
@@ -270,14 +270,16 @@ public class EntityTempManager
             effectsPerTrait.put(trait, effectsPerTrait.get(trait) + temp);
         }
 
+        ITemperatureCap cap = getTemperatureCap(entity).orElse(null);
+        if (cap == null) return;
         effectsPerTrait.forEach((trait, temp) ->
         {
-            Optional<InventoryItemsTempModifier> modifier = Temperature.getModifier(entity, trait, InventoryItemsTempModifier.class);
-            if (modifier.isEmpty())
+            InventoryItemsTempModifier modifier = cap.getModifier(trait, InventoryItemsTempModifier.class);
+            if (modifier == null)
             {   Temperature.addModifier(entity, new InventoryItemsTempModifier(temp), trait, Placement.Duplicates.BY_CLASS);
             }
             else
-            {   modifier.get().getNBT().putDouble("Effect", temp);
+            {   modifier.getNBT().putDouble("Effect", temp);
             }
         });
     }
@@ -423,18 +425,14 @@ public class EntityTempManager
         }
     }
 
-    @SubscribeEvent
-    public static void cancelDisabledModifiers(TempModifierEvent.Calculate.Pre event)
+    /**
+     * Called directly by {@link TempModifier#update(double, LivingEntity, Temperature.Trait)} before the modifier calculates.
+     * Disabled modifiers expire without calculating
+     */
+    public static boolean isModifierDisabled(TempModifier modifier)
     {
-        TempModifier modifier = event.getModifier();
-
         ResourceLocation modifierKey = TempModifierRegistry.getKey(modifier);
-
-        if (modifierKey != null && ConfigSettings.DISABLED_MODIFIERS.get().contains(modifierKey))
-        {
-            modifier.expires(0);
-            event.setCanceled(true);
-        }
+        return modifierKey != null && ConfigSettings.DISABLED_MODIFIERS.get().contains(modifierKey);
     }
 
     @SubscribeEvent
@@ -472,30 +470,29 @@ public class EntityTempManager
     }
 
     /**
-     * Check the player's immunity level to temperature modifiers when they tick
+     * Applies the entity's immunity level to the modifier's newly calculated function.<br>
+     * Called directly by {@link TempModifier#update(double, LivingEntity, Temperature.Trait)}, before the Post event.
      */
-    @SubscribeEvent
-    public static void checkModifierImmunity(TempModifierEvent.Calculate.Post event)
+    public static DoubleUnaryOperator applyModifierImmunity(TempModifier modifier, LivingEntity entity, Temperature.Trait trait, DoubleUnaryOperator function)
     {
-        if (event.getEntity() instanceof DummyPlayer) return;
-        if (!event.getTrait().isForAttributes()) return;
+        if (entity instanceof DummyPlayer) return function;
+        if (!trait.isForAttributes()) return function;
 
-        TempModifier modifier = event.getModifier();
-        ResourceLocation modifierKey = TempModifierRegistry.getKey(modifier);
-        LivingEntity entity = event.getEntity();
+        Map<ResourceLocation, Double> immunities = TEMP_MODIFIER_IMMUNITIES.get(entity);
+        if (immunities == null || immunities.isEmpty()) return function;
 
         // Calculate modifier immunity from equipped insulators
-        double immunity = TEMP_MODIFIER_IMMUNITIES.getOrDefault(entity, Collections.emptyMap()).getOrDefault(modifierKey, 0.0);
+        double immunity = immunities.getOrDefault(TempModifierRegistry.getKey(modifier), 0.0);
         if (immunity > 0)
         {
-            Function<Double, Double> oldFunction = event.getFunction();
-            event.setFunction(temp ->
+            return temp ->
             {
                 double lastInput = modifier instanceof BiomeTempModifier ? Temperature.getNeutralWorldTemp(entity)
                                                                          : temp;
-                return CSMath.blend(oldFunction.apply(temp), lastInput, immunity, 0, 1);
-            });
+                return CSMath.blend(function.applyAsDouble(temp), lastInput, immunity, 0, 1);
+            };
         }
+        return function;
     }
 
     @SubscribeEvent
@@ -658,7 +655,9 @@ public class EntityTempManager
         MobEffectInstance effect = event.getEffectInstance();
 
         if (!entity.level().isClientSide && isTemperatureEnabled(entity)
-        && (effect.getEffect() == ModEffects.FRIGIDNESS || effect.getEffect() == ModEffects.WARMTH))
+        && (effect.getEffect() == ModEffects.FRIGIDNESS || effect.getEffect() == ModEffects.WARMTH)
+        // Display effects for thermal source insulation, whose TempModifier is handled by the temperature cap
+        && !getTemperatureCap(entity).map(ITemperatureCap::isUpdatingInsulationEffects).orElse(false))
         {
             boolean isWarmth = effect.getEffect() == ModEffects.WARMTH;
             int strength = effect.getAmplifier() + 1;
@@ -678,7 +677,8 @@ public class EntityTempManager
         MobEffectInstance effect = event.getEffectInstance();
 
         if (effect != null && !entity.level().isClientSide && isTemperatureEnabled(entity)
-        && (effect.getEffect() == ModEffects.FRIGIDNESS || effect.getEffect() == ModEffects.WARMTH))
+        && (effect.getEffect() == ModEffects.FRIGIDNESS || effect.getEffect() == ModEffects.WARMTH)
+        && !getTemperatureCap(entity).map(ITemperatureCap::isUpdatingInsulationEffects).orElse(false))
         {
             Optional<ThermalSourceTempModifier> modifier = Temperature.getModifier(entity, Temperature.Trait.WORLD, ThermalSourceTempModifier.class);
             if (modifier.isPresent())
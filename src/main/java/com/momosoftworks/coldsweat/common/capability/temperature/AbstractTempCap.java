@@ -2,12 +2,18 @@ package com.momosoftworks.coldsweat.common.capability.temperature;
 
 import com.momosoftworks.coldsweat.ColdSweat;
 import com.momosoftworks.coldsweat.api.event.common.temperautre.TemperatureChangedEvent;
+import com.momosoftworks.coldsweat.api.event.common.temperautre.TemperatureTraitsChangedEvent;
+import com.momosoftworks.coldsweat.api.temperature.modifier.FrigidnessTempModifier;
 import com.momosoftworks.coldsweat.api.temperature.modifier.TempModifier;
+import com.momosoftworks.coldsweat.api.temperature.modifier.ThermalSourceTempModifier;
+import com.momosoftworks.coldsweat.api.temperature.modifier.WarmthTempModifier;
+import com.momosoftworks.coldsweat.api.util.Placement;
 import com.momosoftworks.coldsweat.api.util.Temperature;
 import com.momosoftworks.coldsweat.api.util.Temperature.Trait;
 import com.momosoftworks.coldsweat.common.capability.handler.EntityTempManager;
 import com.momosoftworks.coldsweat.config.ConfigSettings;
 import com.momosoftworks.coldsweat.core.advancement.trigger.ModAdvancementTriggers;
+import com.momosoftworks.coldsweat.util.EventListenerCheck;
 import com.momosoftworks.coldsweat.util.math.CSMath;
 import com.momosoftworks.coldsweat.util.registries.ModDamageSources;
 import com.momosoftworks.coldsweat.util.registries.ModEffects;
@@ -21,6 +27,8 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.damagesource.DamageSource;
 import net.minecraft.world.damagesource.DamageType;
+import net.minecraft.world.effect.MobEffect;
+import net.minecraft.world.effect.MobEffectInstance;
 import net.minecraft.world.effect.MobEffects;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.ai.attributes.Attribute;
@@ -30,8 +38,8 @@ import net.minecraft.world.entity.player.Player;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.registries.ForgeRegistries;
 
+import javax.annotation.Nullable;
 import java.util.*;
-import java.util.function.Supplier;
 
 import static com.momosoftworks.coldsweat.common.capability.handler.EntityTempManager.*;
 
@@ -40,67 +48,105 @@ import static com.momosoftworks.coldsweat.common.capability.handler.EntityTempMa
  */
 public class AbstractTempCap implements ITemperatureCap
 {
-    boolean changed = true;
+    private static final int VALID_TRAIT_MASK = Arrays.stream(VALID_TEMPERATURE_TRAITS).mapToInt(trait -> 1 << trait.ordinal()).reduce(0, (a, b) -> a | b);
+
+    // Bitmasks of traits (by ordinal) that have changed since they were last synced, posted in events, or checked for advancements
+    int syncDirtyTraits = VALID_TRAIT_MASK;
+    int eventDirtyTraits = VALID_TRAIT_MASK;
+    int advancementDirtyTraits = 0;
     int syncTimer = 0;
+    int advancementTimer = 0;
     Temperature.Units preferredUnits = Temperature.Units.F;
 
     private final Set<Attribute> persistentAttributes = new HashSet<>();
 
-    // Map valid temperature types to a new EnumMap
-    private final EnumMap<Trait, Double> traits = Arrays.stream(VALID_TEMPERATURE_TRAITS).collect(
-            () -> new EnumMap<>(Trait.class),
-            (map, type) -> map.put(type, 0.0),
-            EnumMap::putAll);
+    // Values of the valid temperature traits, by ordinal
+    private final double[] traits = new double[Trait.values().length];
+    private final TraitView traitView = this::getTrait;
 
     // Map valid modifier types to a new EnumMap
-    private final EnumMap<Trait, List<TempModifier>> modifiers = Arrays.stream(VALID_MODIFIER_TRAITS).collect(
+    private final EnumMap<Trait, TempModifierList> modifiers = Arrays.stream(VALID_MODIFIER_TRAITS).collect(
             () -> new EnumMap<>(Trait.class),
-            (map, type) -> map.put(type, new ArrayList<>()),
+            (map, type) -> map.put(type, new TempModifierList()),
             EnumMap::putAll);
 
     public boolean showBodyTemp;
     public boolean showWorldTemp;
 
+    // Insulation from thermal sources, refreshed by each source while the entity is in its area. Each level expires on its own
+    int thermalCooling = 0;
+    long thermalCoolingExpires = 0;
+    int thermalWarming = 0;
+    long thermalWarmingExpires = 0;
+    // The levels that the TempModifier and display effects were last updated to
+    int appliedCooling = 0;
+    int appliedWarming = 0;
+    boolean updatingInsulationEffects = false;
+
+    private static final EventListenerCheck CHANGED_LISTENERS = new EventListenerCheck(TemperatureChangedEvent.class);
+    private static final EventListenerCheck TRAITS_CHANGED_LISTENERS = new EventListenerCheck(TemperatureTraitsChangedEvent.class);
+    // The value of each trait when it last fired a TemperatureChangedEvent, by ordinal
+    private final double[] lastPostedValues = new double[Trait.values().length];
+
     @Override
     public double getTrait(Trait trait)
     {   // Special case for BODY
         if (trait == Trait.BODY) return getTrait(Trait.CORE) + getTrait(Trait.BASE);
-        // Throw exception if this temperature trait is not supported
-        if (!traits.containsKey(trait))
-        {   throw ColdSweat.LOGGER.throwing(new IllegalArgumentException("Invalid temperature trait: " + trait));
-        }
-
-        return traits.get(trait);
+        return traits[checkTrait(trait)];
     }
 
     @Override
     public EnumMap<Trait, Double> getTraits()
-    {   return new EnumMap<>(traits);
+    {
+        EnumMap<Trait, Double> map = new EnumMap<>(Trait.class);
+        for (Trait trait : VALID_TEMPERATURE_TRAITS)
+        {   map.put(trait, traits[trait.ordinal()]);
+        }
+        return map;
+    }
+
+    @Override
+    public TraitView getTraitView()
+    {   return traitView;
     }
 
     @Override
     public void setTrait(Trait trait, double value)
     {
-        changed |= switch (trait)
+        int index = checkTrait(trait);
+        double oldValue = traits[index];
+        if (oldValue == value) return;
+
+        int bit = 1 << index;
+        boolean shouldSync = switch (trait)
         {
-            case CORE  -> ((int) value) != ((int) getTrait(Trait.CORE));
-            case BASE  -> ((int) value) != ((int) getTrait(Temperature.Trait.BASE));
-            case WORLD -> Math.abs(value - getTrait(Trait.WORLD)) >= 0.02;
+            case CORE, BASE -> ((int) value) != ((int) oldValue);
+            case WORLD -> Math.abs(value - oldValue) >= 0.02;
             default -> true;
         };
-        // Throw exception if this temperature trait is not supported
-        if (traits.replace(trait, value) == null)
-        {   throw ColdSweat.LOGGER.throwing(new IllegalArgumentException("Invalid temperature trait: " + trait));
+        if (shouldSync)
+        {   syncDirtyTraits |= bit;
         }
+        eventDirtyTraits |= bit;
+        advancementDirtyTraits |= bit;
+        traits[index] = value;
     }
 
     public void setTrait(Trait trait, double value, LivingEntity entity)
+    {   this.setTrait(trait, value);
+    }
+
+    /**
+     * @return The index of the trait in {@link #traits}
+     * @throws IllegalArgumentException if this temperature trait is not supported
+     */
+    private static int checkTrait(Trait trait)
     {
-        double oldTemp = this.getTrait(trait);
-        this.setTrait(trait, value);
-        if (entity.tickCount > 5 && oldTemp != value && entity instanceof ServerPlayer player)
-        {   ModAdvancementTriggers.TEMPERATURE_CHANGED.trigger(player, this.getTraits());
+        int index = trait.ordinal();
+        if ((VALID_TRAIT_MASK & (1 << index)) == 0)
+        {   throw ColdSweat.LOGGER.throwing(new IllegalArgumentException("Invalid temperature trait: " + trait));
         }
+        return index;
     }
 
     @Override
@@ -109,7 +155,7 @@ public class AbstractTempCap implements ITemperatureCap
     }
 
     @Override
-    public List<TempModifier> getModifiers(Trait trait)
+    public TempModifierList getModifiers(Trait trait)
     {   // Throw exception if this modifier type is not supported
         return modifiers.computeIfAbsent(trait, t ->
         {   throw ColdSweat.LOGGER.throwing(new IllegalArgumentException("Invalid modifier trait: " + t));
@@ -118,7 +164,13 @@ public class AbstractTempCap implements ITemperatureCap
 
     @Override
     public boolean hasModifier(Trait trait, Class<? extends TempModifier> mod)
-    {   return getModifiers(trait).stream().anyMatch(mod::isInstance);
+    {   return getModifiers(trait).getFirst(mod) != null;
+    }
+
+    @Nullable
+    @Override
+    public <T extends TempModifier> T getModifier(Trait trait, Class<T> mod)
+    {   return getModifiers(trait).getFirst(mod);
     }
 
     @Override
@@ -159,6 +211,99 @@ public class AbstractTempCap implements ITemperatureCap
     {   return showWorldTemp;
     }
 
+    /* Thermal source insulation */
+
+    /**
+     * Called by thermal sources while the entity is in their area. Stronger levels replace weaker ones,
+     * and weaker levels only take over once the stronger one expires.<br>
+     * The entity's TempModifier and display effects are only updated when a level changes, on the entity's next tick.
+     * @param cooling The strength of the cooling, or 0 if the source isn't cooling
+     * @param warming The strength of the warming, or 0 if the source isn't warming
+     * @param duration The number of ticks until the insulation expires if it isn't refreshed
+     */
+    @Override
+    public void refreshThermalInsulation(int cooling, int warming, long gameTime, int duration)
+    {
+        if (cooling > 0 && (cooling >= thermalCooling || gameTime >= thermalCoolingExpires))
+        {   thermalCooling = cooling;
+            thermalCoolingExpires = gameTime + duration;
+        }
+        if (warming > 0 && (warming >= thermalWarming || gameTime >= thermalWarmingExpires))
+        {   thermalWarming = warming;
+            thermalWarmingExpires = gameTime + duration;
+        }
+    }
+
+    @Override
+    public int getThermalCooling()
+    {   return thermalCooling;
+    }
+
+    @Override
+    public int getThermalWarming()
+    {   return thermalWarming;
+    }
+
+    /**
+     * @return True while the Warmth/Frigidness display effects are being changed by this cap,
+     * so the effect handlers in {@link EntityTempManager} don't add TempModifiers for them
+     */
+    @Override
+    public boolean isUpdatingInsulationEffects()
+    {   return updatingInsulationEffects;
+    }
+
+    protected void tickThermalInsulation(LivingEntity entity)
+    {
+        long gameTime = entity.level().getGameTime();
+        if (thermalCooling > 0 && gameTime >= thermalCoolingExpires)
+        {   thermalCooling = 0;
+        }
+        if (thermalWarming > 0 && gameTime >= thermalWarmingExpires)
+        {   thermalWarming = 0;
+        }
+        // Effects removed by other means (i.e. milk) are re-applied
+        if (appliedCooling > 0 && !entity.hasEffect(ModEffects.FRIGIDNESS)) appliedCooling = 0;
+        if (appliedWarming > 0 && !entity.hasEffect(ModEffects.WARMTH)) appliedWarming = 0;
+        if (thermalCooling == appliedCooling && thermalWarming == appliedWarming) return;
+
+        // Replace the TempModifier
+        Temperature.removeModifiers(entity, Trait.WORLD, mod -> mod instanceof ThermalSourceTempModifier);
+        if (thermalCooling > 0 || thermalWarming > 0)
+        {
+            ThermalSourceTempModifier modifier = thermalWarming >= thermalCooling
+                                                 ? new WarmthTempModifier(thermalWarming)
+                                                 : new FrigidnessTempModifier(thermalCooling);
+            modifier.getNBT().putInt("Cooling", thermalCooling);
+            modifier.getNBT().putInt("Warming", thermalWarming);
+            Temperature.addModifier(entity, modifier, Trait.WORLD, Placement.Duplicates.BY_CLASS);
+        }
+
+        // Update the display effects
+        updatingInsulationEffects = true;
+        try
+        {   updateInsulationEffect(entity, ModEffects.FRIGIDNESS, appliedCooling, thermalCooling);
+            updateInsulationEffect(entity, ModEffects.WARMTH, appliedWarming, thermalWarming);
+        }
+        finally
+        {   updatingInsulationEffects = false;
+        }
+        appliedCooling = thermalCooling;
+        appliedWarming = thermalWarming;
+    }
+
+    private static void updateInsulationEffect(LivingEntity entity, MobEffect effect, int oldLevel, int newLevel)
+    {
+        if (oldLevel == newLevel) return;
+        // Effects can't be replaced with a weaker one, so remove it first
+        if (oldLevel > 0)
+        {   entity.removeEffect(effect);
+        }
+        if (newLevel > 0)
+        {   entity.addEffect(new MobEffectInstance(effect, MobEffectInstance.INFINITE_DURATION, newLevel - 1, false, false, true));
+        }
+    }
+
     /* See Temperature.class for more temperature-related methods */
 
     /**
@@ -177,6 +322,8 @@ public class AbstractTempCap implements ITemperatureCap
     @Override
     public void tick(LivingEntity entity)
     {
+        this.tickThermalInsulation(entity);
+
         // Tick TempModifiers and pre-attribute-bases
         double newWorldTemp = this.modifyFromAttribute(entity, Trait.WORLD, 0);
         double newBaseTemp  = this.modifyFromAttribute(entity, Trait.BASE, 0);
@@ -272,12 +419,16 @@ public class AbstractTempCap implements ITemperatureCap
         this.setTrait(Trait.COLD_DAMPENING, coldDampening);
         this.setTrait(Trait.HEAT_DAMPENING, heatDampening);
 
+        this.postTraitChanges(entity);
+
+        this.tickAdvancements(entity);
+
         if (syncTimer > 0)
         {   syncTimer--;
         }
 
         // Sync the temperature values to the client
-        if (changed && syncTimer <= 0)
+        if (syncDirtyTraits != 0 && syncTimer <= 0)
         {   this.syncValues(entity);
         }
 
@@ -287,17 +438,19 @@ public class AbstractTempCap implements ITemperatureCap
 
     private double modifyFromAttribute(LivingEntity entity, Temperature.Trait type, double baseValue)
     {
-        Supplier<Double> defaultSupplier = () -> Temperature.apply(baseValue, entity, type, this.getModifiers(type));
+        // The modifiers always need to tick, even if the attribute's base value overrides them
+        double defaultValue = Temperature.apply(baseValue, entity, type, this.getModifiers(type));
         AttributeInstance attribute = EntityTempManager.getAttribute(type, entity);
         double newValue;
         // If the attribute is null, return the default value
         if (attribute == null)
-        {   newValue = defaultSupplier.get();
+        {   newValue = defaultValue;
         }
         // If base attribute is unset
         else
         {
-            double base = CSMath.safeDouble(attribute.getBaseValue()).orElse(defaultSupplier.get());
+            double attributeBase = attribute.getBaseValue();
+            double base = Double.isFinite(attributeBase) ? attributeBase : defaultValue;
 
             for (AttributeModifier mod : attribute.getModifiers(AttributeModifier.Operation.ADDITION))
             {   base += mod.getAmount();
@@ -311,17 +464,73 @@ public class AbstractTempCap implements ITemperatureCap
             }
             newValue = value;
         }
-        if (newValue != baseValue)
-        {   MinecraftForge.EVENT_BUS.post(new TemperatureChangedEvent(entity, type, getTrait(type), newValue));
-        }
         return newValue;
     }
 
+    /**
+     * Fires a {@link TemperatureChangedEvent} for each trait that has changed by more than the configured threshold
+     * since it last fired one, then a single {@link TemperatureTraitsChangedEvent} for all of them
+     */
+    private void postTraitChanges(LivingEntity entity)
+    {
+        if (eventDirtyTraits == 0) return;
+
+        double threshold = ConfigSettings.TEMPERATURE_EVENT_THRESHOLD.get();
+        boolean postIndividual = CHANGED_LISTENERS.hasListeners();
+        int changedTraits = 0;
+        double[] oldValues = null;
+
+        for (Trait trait : VALID_TEMPERATURE_TRAITS)
+        {
+            int index = trait.ordinal();
+            if ((eventDirtyTraits & (1 << index)) == 0) continue;
+
+            double lastValue = lastPostedValues[index];
+            double value = traits[index];
+            if (Math.abs(value - lastValue) <= threshold) continue;
+
+            lastPostedValues[index] = value;
+            if (postIndividual)
+            {   MinecraftForge.EVENT_BUS.post(new TemperatureChangedEvent(entity, trait, lastValue, value));
+            }
+            if (TRAITS_CHANGED_LISTENERS.hasListeners())
+            {
+                if (oldValues == null) oldValues = new double[Trait.values().length];
+                oldValues[index] = lastValue;
+                changedTraits |= 1 << index;
+            }
+        }
+        // Traits that changed by less than the threshold are compared against their last posted value again once they change
+        eventDirtyTraits = 0;
+        if (changedTraits != 0)
+        {   MinecraftForge.EVENT_BUS.post(new TemperatureTraitsChangedEvent(entity, changedTraits, oldValues, lastPostedValues.clone()));
+        }
+    }
+
+    /**
+     * Checks the player's temperature advancements at most once per {@link ConfigSettings#ADVANCEMENT_CHECK_INTERVAL},
+     * and only if a trait has changed and the player has criteria left to grant
+     */
+    private void tickAdvancements(LivingEntity entity)
+    {
+        if (advancementTimer > 0)
+        {   advancementTimer--;
+            return;
+        }
+        if (advancementDirtyTraits == 0 || entity.tickCount <= 5 || !(entity instanceof ServerPlayer player)) return;
+
+        if (ModAdvancementTriggers.TEMPERATURE_CHANGED.hasListeners(player))
+        {   ModAdvancementTriggers.TEMPERATURE_CHANGED.trigger(player, traitView);
+            advancementTimer = ConfigSettings.ADVANCEMENT_CHECK_INTERVAL.get() - 1;
+        }
+        advancementDirtyTraits = 0;
+    }
+
     @Override
     public void syncValues(LivingEntity entity)
     {
         Temperature.updateTemperature(entity, this, false);
-        changed = false;
+        syncDirtyTraits = 0;
         syncTimer = 5;
     }
 
@@ -372,6 +581,16 @@ public class AbstractTempCap implements ITemperatureCap
 
         // Copy preferred units
         this.setPreferredUnits(cap.getPreferredUnits());
+
+        // Copy thermal source insulation
+        if (cap instanceof AbstractTempCap other)
+        {   this.thermalCooling = other.thermalCooling;
+            this.thermalCoolingExpires = other.thermalCoolingExpires;
+            this.thermalWarming = other.thermalWarming;
+            this.thermalWarmingExpires = other.thermalWarmingExpires;
+            this.appliedCooling = other.appliedCooling;
+            this.appliedWarming = other.appliedWarming;
+        }
     }
 
     @Override
@@ -388,6 +607,15 @@ public class AbstractTempCap implements ITemperatureCap
         {   attributes.add(StringTag.valueOf(ForgeRegistries.ATTRIBUTES.getKey(attribute).toString()));
         }
         nbt.put("PersistentAttributes", attributes);
+        // Save thermal source insulation, so the display effects are cleaned up if it expires while the entity is unloaded
+        CompoundTag insulation = new CompoundTag();
+        insulation.putInt("Cooling", thermalCooling);
+        insulation.putLong("CoolingExpires", thermalCoolingExpires);
+        insulation.putInt("Warming", thermalWarming);
+        insulation.putLong("WarmingExpires", thermalWarmingExpires);
+        insulation.putInt("AppliedCooling", appliedCooling);
+        insulation.putInt("AppliedWarming", appliedWarming);
+        nbt.put("ThermalInsulation", insulation);
         return nbt;
     }
 
@@ -397,8 +625,8 @@ public class AbstractTempCap implements ITemperatureCap
         CompoundTag nbt = new CompoundTag();
 
         // Save the player's temperature data
-        for (Map.Entry<Trait, Double> trait : traits.entrySet())
-        {   nbt.putDouble(NBTHelper.getTraitTagKey(trait.getKey()), trait.getValue());
+        for (Trait trait : VALID_TEMPERATURE_TRAITS)
+        {   nbt.putDouble(NBTHelper.getTraitTagKey(trait), traits[trait.ordinal()]);
         }
         return nbt;
     }
@@ -432,6 +660,14 @@ public class AbstractTempCap implements ITemperatureCap
         for (int i = 0; i < attributes.size(); i++)
         {   this.markPersistentAttribute(ForgeRegistries.ATTRIBUTES.getValue(new ResourceLocation(attributes.getString(i))));
         }
+        // Load thermal source insulation
+        CompoundTag insulation = nbt.getCompound("ThermalInsulation");
+        thermalCooling = insulation.getInt("Cooling");
+        thermalCoolingExpires = insulation.getLong("CoolingExpires");
+        thermalWarming = insulation.getInt("Warming");
+        thermalWarmingExpires = insulation.getLong("WarmingExpires");
+        appliedCooling = insulation.getInt("AppliedCooling");
+        appliedWarming = insulation.getInt("AppliedWarming");
     }
 
     @Override
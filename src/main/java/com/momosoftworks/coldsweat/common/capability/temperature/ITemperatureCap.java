@@ -6,6 +6,7 @@ import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.ai.attributes.Attribute;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.EnumMap;
 import java.util.List;
@@ -14,10 +15,30 @@ public interface ITemperatureCap
 {
     double getTrait(Temperature.Trait trait);
     EnumMap<Temperature.Trait, Double> getTraits();
+    /**
+     * @return A read-only view of this cap's traits, which reflects later changes without copying them
+     */
+    default TraitView getTraitView()
+    {   return this::getTrait;
+    }
     void setTrait(Temperature.Trait trait, double value);
 
     List<TempModifier> getModifiers(Temperature.Trait trait);
     boolean hasModifier(Temperature.Trait trait, Class<? extends TempModifier> mod);
+    /**
+     * @return The first modifier of the given class, or null if there isn't one
+     */
+    @Nullable
+    default <T extends TempModifier> T getModifier(Temperature.Trait trait, Class<T> mod)
+    {
+        for (TempModifier modifier : this.getModifiers(trait))
+        {
+            if (mod.isInstance(modifier))
+            {   return (T) modifier;
+            }
+        }
+        return null;
+    }
     void addModifier(TempModifier modifier, Temperature.Trait trait);
     void clearModifiers(Temperature.Trait trait);
 
@@ -25,6 +46,18 @@ public interface ITemperatureCap
     void clearPersistentAttribute(Attribute attribute);
     Collection<Attribute> getPersistentAttributes();
 
+    default void refreshThermalInsulation(int cooling, int warming, long gameTime, int duration)
+    {}
+    default int getThermalCooling()
+    {   return 0;
+    }
+    default int getThermalWarming()
+    {   return 0;
+    }
+    default boolean isUpdatingInsulationEffects()
+    {   return false;
+    }
+
     void tick(LivingEntity entity);
     void tickDummy(LivingEntity entity);
 
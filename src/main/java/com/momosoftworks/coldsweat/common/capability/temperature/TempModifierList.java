@@ -0,0 +1,71 @@
+package com.momosoftworks.coldsweat.common.capability.temperature;
+
+import com.momosoftworks.coldsweat.api.temperature.modifier.TempModifier;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+
+/**
+ * The TempModifiers of one trait, in the order they are applied.<br>
+ * Keeps an index from each modifier class (and its superclasses) to the first modifier that is an instance of it,
+ * so looking up a modifier by class doesn't scan or allocate. The index is rebuilt lazily after the list changes.<br>
+ * <br>
+ * Elements set through a {@link #subList(int, int)} view aren't tracked.
+ */
+public class TempModifierList extends ArrayList<TempModifier>
+{
+    private final Reference2ObjectOpenHashMap<Class<?>, TempModifier> firstByClass = new Reference2ObjectOpenHashMap<>();
+    // set() isn't a structural change, so it doesn't increment modCount
+    private int replacements = 0;
+    private int indexedModCount = -1;
+    private int indexedReplacements = -1;
+
+    @Override
+    public TempModifier set(int index, TempModifier modifier)
+    {   replacements++;
+        return super.set(index, modifier);
+    }
+
+    /**
+     * @return The first modifier in the list that is an instance of the given class, or null if there isn't one
+     */
+    @Nullable
+    public <T extends TempModifier> T getFirst(Class<T> modClass)
+    {
+        // Interfaces aren't indexed
+        if (modClass.isInterface())
+        {
+            for (int i = 0; i < this.size(); i++)
+            {
+                TempModifier modifier = this.get(i);
+                if (modClass.isInstance(modifier))
+                {   return (T) modifier;
+                }
+            }
+            return null;
+        }
+        if (indexedModCount != modCount || indexedReplacements != replacements)
+        {   this.reindex();
+        }
+        return (T) firstByClass.get(modClass);
+    }
+
+    private void reindex()
+    {
+        firstByClass.clear();
+        for (int i = 0; i < this.size(); i++)
+        {
+            TempModifier modifier = this.get(i);
+            if (modifier == null) continue;
+
+            for (Class<?> clazz = modifier.getClass(); clazz != Object.class; clazz = clazz.getSuperclass())
+            {
+                // If this class is already indexed, so are all of its superclasses
+                if (firstByClass.putIfAbsent(clazz, modifier) != null) break;
+            }
+        }
+        indexedModCount = modCount;
+        indexedReplacements = replacements;
+    }
+}
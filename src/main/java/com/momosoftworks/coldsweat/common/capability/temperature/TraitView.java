@@ -0,0 +1,13 @@
+package com.momosoftworks.coldsweat.common.capability.temperature;
+
+import com.momosoftworks.coldsweat.api.util.Temperature;
+
+/**
+ * Read-only view of an entity's temperature traits, backed by its {@link ITemperatureCap}.<br>
+ * Unlike {@link ITemperatureCap#getTraits()}, reading from it doesn't copy the traits.
+ */
+@FunctionalInterface
+public interface TraitView
+{
+    double get(Temperature.Trait trait);
+}
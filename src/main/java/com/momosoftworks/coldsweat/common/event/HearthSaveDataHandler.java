@@ -3,6 +3,7 @@ package com.momosoftworks.coldsweat.common.event;
 import com.mojang.datafixers.util.Pair;
 import com.momosoftworks.coldsweat.core.network.ColdSweatPacketHandler;
 import com.momosoftworks.coldsweat.core.network.message.DisableHearthParticlesMessage;
+import com.momosoftworks.coldsweat.util.world.ThermalSourceIndex;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
@@ -21,6 +22,11 @@ import java.util.Set;
 @Mod.EventBusSubscriber
 public class HearthSaveDataHandler
 {
+    /**
+     * Deprecated. Use {@link ThermalSourceIndex#getSources()} instead.<br>
+     * Still kept up-to-date by the {@link ThermalSourceIndex} as sources are added and removed.
+     */
+    @Deprecated(since = "2.3.12", forRemoval = true)
     public static final Set<Pair<BlockPos, ResourceLocation>> HEARTH_POSITIONS = new HashSet<>();
     public static final Set<Pair<BlockPos, ResourceLocation>> DISABLED_HEARTHS = new HashSet<>();
 
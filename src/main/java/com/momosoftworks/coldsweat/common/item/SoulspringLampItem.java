@@ -84,8 +84,8 @@ public class SoulspringLampItem extends Item
                         double z = bb2.minZ + (bb2.maxZ - bb2.minZ) * Math.random();
                         double xSpeed = (Math.random() - 0.5) * 0.02;
                         double zSpeed = (Math.random() - 0.5) * 0.02;
-                        new ParticleBatchMessage(0).addParticle(ParticleTypes.SOUL_FIRE_FLAME, x, y, z, xSpeed, 0, zSpeed)
-                                                   .sendEntity(living);
+                        new ParticleBatchMessage(0, true).addParticle(ParticleTypes.SOUL_FIRE_FLAME, x, y, z, xSpeed, 0, zSpeed)
+                                                         .sendEntity(living);
                     }
 
                     for (LivingEntity ent : level.getEntitiesOfClass(LivingEntity.class, bb))
@@ -19,6 +19,7 @@ import com.momosoftworks.coldsweat.util.math.RegistryMultiMap;
 import com.momosoftworks.coldsweat.util.serialization.*;
 import com.momosoftworks.coldsweat.compat.CompatManager;
 import com.momosoftworks.coldsweat.util.registries.ModEntities;
+import com.momosoftworks.coldsweat.util.world.SpreadShapeTable;
 import net.minecraft.core.Holder;
 import net.minecraft.core.RegistryAccess;
 import net.minecraft.core.registries.Registries;
@@ -98,6 +99,7 @@ public class ConfigSettings
     public static final DynamicHolder<List<Block>> THERMAL_SOURCE_SPREAD_WHITELIST;
     public static final DynamicHolder<List<Block>> THERMAL_SOURCE_SPREAD_BLACKLIST;
     public static final DynamicHolder<Double> THERMAL_SOURCE_STRENGTH;
+    public static final DynamicHolder<Boolean> THERMAL_SOURCE_ASYNC_SPREAD;
 
     public static final DynamicHolder<Boolean> SMART_HEARTH;
     public static final DynamicHolder<Integer> HEARTH_MAX_RANGE;
@@ -166,6 +168,8 @@ public class ConfigSettings
     public static final DynamicHolder<Double> INSULATION_STRENGTH;
     public static final DynamicHolder<List<ResourceLocation>> DISABLED_MODIFIERS;
     public static final DynamicHolder<Double> MODIFIER_TICK_RATE;
+    public static final DynamicHolder<Double> TEMPERATURE_EVENT_THRESHOLD;
+    public static final DynamicHolder<Integer> ADVANCEMENT_CHECK_INTERVAL;
 
     // Client Settings
     /* NULL ON THE SERVER */
@@ -748,6 +752,8 @@ public class ConfigSettings
 
         THERMAL_SOURCE_STRENGTH = addSetting("hearth_effect", () -> 0.75, holder -> holder.set(WorldSettingsConfig.SOURCE_EFFECT_STRENGTH.get()));
 
+        THERMAL_SOURCE_ASYNC_SPREAD = addSetting("hearth_async_spread", () -> false, holder -> holder.set(WorldSettingsConfig.ASYNC_SOURCE_SPREAD.get()));
+
         SMART_HEARTH = addSyncedSetting("smart_hearth", () -> false, holder -> holder.set(WorldSettingsConfig.ENABLE_SMART_HEARTH.get()),
         (encoder) -> ConfigHelper.serializeNbtBool(encoder, "SmartHearth"),
         (decoder) -> decoder.getBoolean("SmartHearth"),
@@ -888,6 +894,9 @@ public class ConfigSettings
         (saver) -> MainSettingsConfig.MODIFIER_TICK_RATE.set(saver),
         SyncType.BOTH_WAYS);
 
+        TEMPERATURE_EVENT_THRESHOLD = addSetting("temperature_event_threshold", () -> 0.01, holder -> holder.set(MainSettingsConfig.TEMPERATURE_EVENT_THRESHOLD.get()));
+        ADVANCEMENT_CHECK_INTERVAL = addSetting("advancement_check_interval", () -> 5, holder -> holder.set(MainSettingsConfig.ADVANCEMENT_CHECK_INTERVAL.get()));
+
 
         // Client
 
@@ -1101,6 +1110,7 @@ public class ConfigSettings
             {   config.decode(tag, registryAccess);
             }
         }
+        SpreadShapeTable.clear();
     }
 
     public static void saveValues(RegistryAccess registryAccess)
@@ -1127,6 +1137,7 @@ public class ConfigSettings
                 }
             });
         }
+        SpreadShapeTable.clear();
     }
 
     public static void clear()
@@ -1134,6 +1145,7 @@ public class ConfigSettings
         for (Map.Entry<String, DynamicHolder<?>> entry : CONFIG_SETTINGS.entrySet())
         {   entry.getValue().reset();
         }
+        SpreadShapeTable.clear();
     }
 
     private static <K, V> void putRegistryEntries(Multimap<K, V> map, IForgeRegistry<K> registry, Optional<List<Either<TagKey<K>, K>>> list, V data)
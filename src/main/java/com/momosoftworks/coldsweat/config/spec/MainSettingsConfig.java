@@ -43,6 +43,8 @@ public class MainSettingsConfig
 
     public static final ForgeConfigSpec.ConfigValue<List<? extends String>> DISABLED_TEMP_MODIFIERS;
     public static final ForgeConfigSpec.DoubleValue MODIFIER_TICK_RATE;
+    public static final ForgeConfigSpec.DoubleValue TEMPERATURE_EVENT_THRESHOLD;
+    public static final ForgeConfigSpec.IntValue ADVANCEMENT_CHECK_INTERVAL;
 
     static 
     {
@@ -174,6 +176,16 @@ public class MainSettingsConfig
                          "Temperature modifiers control most of Cold Sweat's behavior, so lowering this value will improve performance at the cost of responsiveness")
                 .defineInRange("Modifier Tick Rate", 1.0, 0.1, 1.0);
 
+        TEMPERATURE_EVENT_THRESHOLD = BUILDER
+                .comment("How much a temperature value must change since the last TemperatureChangedEvent for it to be fired again",
+                         "Raising this value reduces the number of times that mods and scripts listening to temperature changes are run")
+                .defineInRange("Temperature Event Threshold", 0.01, 0.0, Double.MAX_VALUE);
+
+        ADVANCEMENT_CHECK_INTERVAL = BUILDER
+                .comment("The minimum number of ticks between checks of a player's temperature for advancements",
+                         "Raising this value improves performance, but very brief temperature changes may not be counted")
+                .defineInRange("Advancement Check Interval", 5, 1, 1200);
+
         BUILDER.pop();
 
         SPEC = BUILDER.build();
@@ -43,6 +43,7 @@ public class WorldSettingsConfig
     public static final ForgeConfigSpec.ConfigValue<Double> SOURCE_EFFECT_STRENGTH;
     public static final ForgeConfigSpec.ConfigValue<List<? extends String>> SOURCE_SPREAD_WHITELIST;
     public static final ForgeConfigSpec.ConfigValue<List<? extends String>> SOURCE_SPREAD_BLACKLIST;
+    public static final ForgeConfigSpec.ConfigValue<Boolean> ASYNC_SOURCE_SPREAD;
 
     public static final ForgeConfigSpec.ConfigValue<Integer> HEARTH_RANGE;
     public static final ForgeConfigSpec.ConfigValue<Integer> HEARTH_MAX_RANGE;
@@ -629,6 +630,11 @@ public class WorldSettingsConfig
                                             "minecraft:water"
                 ), o -> o instanceof String);
 
+        ASYNC_SOURCE_SPREAD = BUILDER
+                .comment("Calculates the area of effect of thermal sources on background threads, using copies of the surrounding blocks",
+                         "Reduces server lag from large hearth/boiler/icebox builds, but new areas may take slightly longer to fill")
+                .define("Async Thermal Source Spreading", false);
+
         BUILDER.push("Hearth");
 
         ENABLE_SMART_HEARTH = BUILDER
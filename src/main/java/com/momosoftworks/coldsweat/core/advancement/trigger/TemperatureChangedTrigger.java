@@ -6,8 +6,11 @@ import com.google.gson.JsonObject;
 
 import com.momosoftworks.coldsweat.ColdSweat;
 import com.momosoftworks.coldsweat.api.util.Temperature;
+import com.momosoftworks.coldsweat.common.capability.temperature.TraitView;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import net.minecraft.advancements.critereon.*;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.PlayerAdvancements;
 import net.minecraft.server.level.ServerPlayer;
 
 import java.util.ArrayList;
@@ -18,6 +21,9 @@ public class TemperatureChangedTrigger extends SimpleCriterionTrigger<Temperatur
 {
     static final ResourceLocation ID = new ResourceLocation(ColdSweat.MOD_ID, "temperature");
 
+    // Criteria are unregistered from a player once they're granted, so this only counts those that can still be
+    private final Reference2IntOpenHashMap<PlayerAdvancements> listenerCounts = new Reference2IntOpenHashMap<>();
+
     @Override
     protected Instance createInstance(JsonObject json, ContextAwarePredicate player, DeserializationContext context)
     {
@@ -44,11 +50,46 @@ public class TemperatureChangedTrigger extends SimpleCriterionTrigger<Temperatur
         return ID;
     }
 
-    public void trigger(ServerPlayer player, Map<Temperature.Trait, Double> temps)
+    @Override
+    public void addPlayerListener(PlayerAdvancements advancements, Listener<Instance> listener)
+    {
+        super.addPlayerListener(advancements, listener);
+        listenerCounts.addTo(advancements, 1);
+    }
+
+    @Override
+    public void removePlayerListener(PlayerAdvancements advancements, Listener<Instance> listener)
+    {
+        super.removePlayerListener(advancements, listener);
+        if (listenerCounts.addTo(advancements, -1) <= 1)
+        {   listenerCounts.removeInt(advancements);
+        }
+    }
+
+    @Override
+    public void removePlayerListeners(PlayerAdvancements advancements)
+    {
+        super.removePlayerListeners(advancements);
+        listenerCounts.removeInt(advancements);
+    }
+
+    /**
+     * @return False if every criterion using this trigger has already been granted to the player
+     */
+    public boolean hasListeners(ServerPlayer player)
+    {   return listenerCounts.containsKey(player.getAdvancements());
+    }
+
+    public void trigger(ServerPlayer player, TraitView temps)
     {
         this.trigger(player, triggerInstance -> triggerInstance.matches(temps));
     }
 
+    public void trigger(ServerPlayer player, Map<Temperature.Trait, Double> temps)
+    {
+        this.trigger(player, temps::get);
+    }
+
     public static class Instance extends AbstractCriterionTriggerInstance
     {
         List<TriggerHelper.TempCondition> conditions;
@@ -59,7 +100,7 @@ public class TemperatureChangedTrigger extends SimpleCriterionTrigger<Temperatur
             this.conditions = conditions;
         }
 
-        public boolean matches(Map<Temperature.Trait, Double> temps)
+        public boolean matches(TraitView temps)
         {
             for (TriggerHelper.TempCondition condition : conditions)
             {
@@ -49,6 +49,7 @@ public class TempModifierInit
             ColdSweat.LOGGER.error("Registering TempModifiers failed!");
             throw e;
         }
+        TempModifierRegistry.freeze();
     }
 
     public static void buildBlockRegistries()
@@ -8,7 +8,7 @@ import net.minecraftforge.network.simple.SimpleChannel;
 
 public class ColdSweatPacketHandler
 {
-    private static final String PROTOCOL_VERSION = "0.1.2";
+    private static final String PROTOCOL_VERSION = "0.1.3";
     public static final SimpleChannel INSTANCE = NetworkRegistry.newSimpleChannel(
             new ResourceLocation(ColdSweat.MOD_ID, "main"),
             () -> PROTOCOL_VERSION,
@@ -24,7 +24,7 @@ public class ColdSweatPacketHandler
         INSTANCE.registerMessage(3, ClientConfigAskMessage.class, ClientConfigAskMessage::encode, ClientConfigAskMessage::decode, ClientConfigAskMessage::handle);
         INSTANCE.registerMessage(4, PlayEntityAttachedSoundMessage.class, PlayEntityAttachedSoundMessage::encode, PlayEntityAttachedSoundMessage::decode, PlayEntityAttachedSoundMessage::handle);
         INSTANCE.registerMessage(5, BlockDataUpdateMessage.class, BlockDataUpdateMessage::encode, BlockDataUpdateMessage::decode, BlockDataUpdateMessage::handle);
-        INSTANCE.registerMessage(6, HearthResetMessage.class, HearthResetMessage::encode, HearthResetMessage::decode, HearthResetMessage::handle);
+        INSTANCE.registerMessage(6, HearthVolumeSyncMessage.class, HearthVolumeSyncMessage::encode, HearthVolumeSyncMessage::decode, HearthVolumeSyncMessage::handle);
         INSTANCE.registerMessage(7, DisableHearthParticlesMessage.class, DisableHearthParticlesMessage::encode, DisableHearthParticlesMessage::decode, DisableHearthParticlesMessage::handle);
         INSTANCE.registerMessage(8, ParticleBatchMessage.class, ParticleBatchMessage::encode, ParticleBatchMessage::decode, ParticleBatchMessage::handle);
         INSTANCE.registerMessage(9, SyncShearableDataMessage.class, SyncShearableDataMessage::encode, SyncShearableDataMessage::decode, SyncShearableDataMessage::handle);
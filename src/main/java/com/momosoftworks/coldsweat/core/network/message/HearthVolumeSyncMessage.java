@@ -0,0 +1,126 @@
+package com.momosoftworks.coldsweat.core.network.message;
+
+import com.momosoftworks.coldsweat.common.blockentity.HearthBlockEntity;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Sends the positions in a thermal source's volume to the client, either in full or as the changes since the last sync.<br>
+ * Positions are written as sorted indices in their bounding box, so a compact volume takes about one byte per position.
+ */
+public class HearthVolumeSyncMessage
+{
+    BlockPos blockPos;
+    boolean full;
+    boolean spreading;
+    long[] added;
+    long[] removed;
+
+    public HearthVolumeSyncMessage(BlockPos blockPos, boolean full, boolean spreading, long[] added, long[] removed)
+    {
+        this.blockPos = blockPos;
+        this.full = full;
+        this.spreading = spreading;
+        this.added = added;
+        this.removed = removed;
+    }
+
+    public static void encode(HearthVolumeSyncMessage message, FriendlyByteBuf buffer)
+    {
+        buffer.writeBlockPos(message.blockPos);
+        buffer.writeBoolean(message.full);
+        buffer.writeBoolean(message.spreading);
+        writePositions(buffer, message.blockPos, message.added);
+        writePositions(buffer, message.blockPos, message.removed);
+    }
+
+    public static HearthVolumeSyncMessage decode(FriendlyByteBuf buffer)
+    {
+        BlockPos blockPos = buffer.readBlockPos();
+        boolean full = buffer.readBoolean();
+        boolean spreading = buffer.readBoolean();
+        long[] added = readPositions(buffer, blockPos);
+        long[] removed = readPositions(buffer, blockPos);
+        return new HearthVolumeSyncMessage(blockPos, full, spreading, added, removed);
+    }
+
+    public static void handle(HearthVolumeSyncMessage message, Supplier<NetworkEvent.Context> contextSupplier)
+    {
+        NetworkEvent.Context context = contextSupplier.get();
+        if (context.getDirection().getReceptionSide().isClient())
+        {
+            context.enqueueWork(() ->
+            {
+                BlockEntity te = Minecraft.getInstance().level.getBlockEntity(message.blockPos);
+                if (te instanceof HearthBlockEntity hearth)
+                {   hearth.applyVolumeSync(message.full, message.spreading, message.added, message.removed);
+                }
+            });
+        }
+        context.setPacketHandled(true);
+    }
+
+    private static void writePositions(FriendlyByteBuf buffer, BlockPos relativeTo, long[] positions)
+    {
+        buffer.writeVarInt(positions.length);
+        if (positions.length == 0) return;
+
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (long pos : positions)
+        {
+            minX = Math.min(minX, BlockPos.getX(pos)); maxX = Math.max(maxX, BlockPos.getX(pos));
+            minY = Math.min(minY, BlockPos.getY(pos)); maxY = Math.max(maxY, BlockPos.getY(pos));
+            minZ = Math.min(minZ, BlockPos.getZ(pos)); maxZ = Math.max(maxZ, BlockPos.getZ(pos));
+        }
+        int sizeY = maxY - minY + 1;
+        int sizeZ = maxZ - minZ + 1;
+        buffer.writeVarInt(minX - relativeTo.getX());
+        buffer.writeVarInt(minY - relativeTo.getY());
+        buffer.writeVarInt(minZ - relativeTo.getZ());
+        buffer.writeVarInt(sizeY);
+        buffer.writeVarInt(sizeZ);
+
+        long[] indices = new long[positions.length];
+        for (int i = 0; i < positions.length; i++)
+        {   long pos = positions[i];
+            indices[i] = ((long) (BlockPos.getX(pos) - minX) * sizeY + (BlockPos.getY(pos) - minY)) * sizeZ + (BlockPos.getZ(pos) - minZ);
+        }
+        Arrays.sort(indices);
+        // Neighboring positions are usually next to each other in the box, so the gaps between them are small
+        long last = 0;
+        for (long index : indices)
+        {   buffer.writeVarLong(index - last);
+            last = index;
+        }
+    }
+
+    private static long[] readPositions(FriendlyByteBuf buffer, BlockPos relativeTo)
+    {
+        int count = buffer.readVarInt();
+        if (count == 0) return new long[0];
+
+        int minX = relativeTo.getX() + buffer.readVarInt();
+        int minY = relativeTo.getY() + buffer.readVarInt();
+        int minZ = relativeTo.getZ() + buffer.readVarInt();
+        int sizeY = buffer.readVarInt();
+        int sizeZ = buffer.readVarInt();
+
+        long[] positions = new long[count];
+        long index = 0;
+        for (int i = 0; i < count; i++)
+        {   index += buffer.readVarLong();
+            int z = (int) (index % sizeZ);
+            int y = (int) ((index / sizeZ) % sizeY);
+            int x = (int) (index / ((long) sizeZ * sizeY));
+            positions[i] = BlockPos.asLong(minX + x, minY + y, minZ + z);
+        }
+        return positions;
+    }
+}
@@ -1,6 +1,7 @@
 package com.momosoftworks.coldsweat.core.network.message;
 
 import com.mojang.datafixers.util.Pair;
+import com.momosoftworks.coldsweat.client.particle.ThermalParticleEmitter;
 import com.momosoftworks.coldsweat.core.network.ColdSweatPacketHandler;
 import net.minecraft.client.Minecraft;
 import net.minecraft.core.particles.ParticleOptions;
@@ -28,15 +29,22 @@ public class ParticleBatchMessage
 
     Set<Pair<ParticleOptions, ParticlePlacement>> particles = new HashSet<>();
     int minSetting;
+    boolean budgeted;
 
     /**
      * @param minSetting The minimum particle setting for the particles to render.<br>
      * 0: All<br>
      * 1: Decreased<br>
      * 2: Minimal<br>
+     * @param budgeted Whether the particles share the frame's particle budget with thermal sources (see {@link ThermalParticleEmitter})
      */
-    public ParticleBatchMessage(int minSetting)
+    public ParticleBatchMessage(int minSetting, boolean budgeted)
     {   this.minSetting = minSetting;
+        this.budgeted = budgeted;
+    }
+
+    public ParticleBatchMessage(int minSetting)
+    {   this(minSetting, false);
     }
 
     public ParticleBatchMessage()
@@ -72,6 +80,7 @@ public class ParticleBatchMessage
     public static void encode(ParticleBatchMessage message, FriendlyByteBuf buffer)
     {
         buffer.writeInt(message.minSetting);
+        buffer.writeBoolean(message.budgeted);
         buffer.writeInt(message.particles.size());
         for (Pair<ParticleOptions, ParticlePlacement> entry : message.particles)
         {
@@ -85,7 +94,7 @@ public class ParticleBatchMessage
 
     public static ParticleBatchMessage decode(FriendlyByteBuf buffer)
     {
-        ParticleBatchMessage message = new ParticleBatchMessage(buffer.readInt());
+        ParticleBatchMessage message = new ParticleBatchMessage(buffer.readInt(), buffer.readBoolean());
         int size = buffer.readInt();
         for (int i = 0; i < size; i++)
         {
@@ -112,7 +121,10 @@ public class ParticleBatchMessage
 
                 if (message.minSetting == -1 || Minecraft.getInstance().options.particles().get().getId() <= message.minSetting)
                 {
-                    Minecraft.getInstance().level.addParticle(particle, placement.x, placement.y, placement.z, placement.vx, placement.vy, placement.vz);
+                    if (message.budgeted)
+                    {   ThermalParticleEmitter.get().emit(particle, placement.x, placement.y, placement.z, placement.vx, placement.vy, placement.vz);
+                    }
+                    else Minecraft.getInstance().level.addParticle(particle, placement.x, placement.y, placement.z, placement.vx, placement.vy, placement.vz);
                 }
             }
         });
@@ -0,0 +1,37 @@
+package com.momosoftworks.coldsweat.mixin;
+
+import com.momosoftworks.coldsweat.util.ClientOnlyHelper;
+import com.momosoftworks.coldsweat.util.world.SkyOcclusionCache;
+import com.momosoftworks.coldsweat.util.world.ThermalSourceIndex;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Keeps the {@link SkyOcclusionCache} and the smokestack state of thermal sources up-to-date on both sides, and the hearth debug meshes on the client.
+ * On the server, off-thread spreading that copied the changed section is discarded.<br>
+ * Unlike {@link MixinBlockUpdate}, this runs immediately, so cached columns are never read after they go stale.
+ */
+@Mixin(LevelChunk.class)
+public class MixinChunkBlockChange
+{
+    @Inject(method = "setBlockState", at = @At("RETURN"))
+    private void onSetBlockState(BlockPos pos, BlockState state, boolean isMoving, CallbackInfoReturnable<BlockState> cir)
+    {
+        // Null means the state didn't change
+        if (cir.getReturnValue() != null)
+        {   Level level = ((LevelChunk) (Object) this).getLevel();
+            SkyOcclusionCache.onBlockChanged(level, pos, state);
+            ThermalSourceIndex.onColumnBlockChanged(level, pos);
+            if (level.isClientSide)
+            {   ClientOnlyHelper.onHearthBlockChanged(level, pos);
+            }
+            else ThermalSourceIndex.onSectionBlockChanged(level, pos);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.momosoftworks.coldsweat.mixin;
+
+import net.minecraft.world.effect.MobEffectInstance;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+/**
+ * Lets thermal sources count down the effects they hold without reflection
+ */
+@Mixin(MobEffectInstance.class)
+public interface MixinMobEffectDuration
+{
+    @Accessor("duration")
+    void setDuration(int duration);
+}
@@ -1,6 +1,7 @@
 package com.momosoftworks.coldsweat.util;
 
 import com.momosoftworks.coldsweat.client.event.HearthDebugRenderer;
+import com.momosoftworks.coldsweat.client.renderer.HearthDebugMesh;
 import com.momosoftworks.coldsweat.client.gui.config.pages.ConfigPageOne;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.model.HumanoidModel;
@@ -18,7 +19,6 @@ import net.minecraft.world.level.Level;
 import net.minecraftforge.fml.util.ObfuscationReflectionHelper;
 
 import java.lang.reflect.Field;
-import java.util.HashMap;
 
 /**
  * This class is an abstraction layer for some methods in client-oriented classes
@@ -35,13 +35,17 @@ public class ClientOnlyHelper
     }
 
     public static void addHearthPosition(BlockPos pos)
-    {   HearthDebugRenderer.HEARTH_LOCATIONS.put(pos, new HashMap<>());
+    {   HearthDebugRenderer.HEARTH_LOCATIONS.put(pos, HearthDebugMesh.EMPTY);
     }
 
     public static void removeHearthPosition(BlockPos pos)
     {   HearthDebugRenderer.HEARTH_LOCATIONS.remove(pos);
     }
 
+    public static void onHearthBlockChanged(Level level, BlockPos pos)
+    {   HearthDebugRenderer.onBlockChanged(level, pos);
+    }
+
     public static void openConfigScreen()
     {   Minecraft.getInstance().setScreen(new ConfigPageOne(Minecraft.getInstance().screen));
     }
@@ -0,0 +1,70 @@
+package com.momosoftworks.coldsweat.util;
+
+import com.momosoftworks.coldsweat.ColdSweat;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.eventbus.EventBus;
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventListenerHelper;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IEventListener;
+import net.minecraftforge.fml.util.ObfuscationReflectionHelper;
+
+/**
+ * Cached check of whether an event type has any listeners on the Forge event bus, so events that nobody listens to can be skipped.<br>
+ * The bus only rebuilds an event's listener array when listeners are added or removed,
+ * so the check is only recomputed when the array changes.
+ */
+public class EventListenerCheck
+{
+    private static final int BUS_ID = getBusId();
+
+    private final ListenerList listenerList;
+    private volatile Snapshot snapshot = new Snapshot(null, true);
+
+    public EventListenerCheck(Class<? extends Event> eventClass)
+    {   this.listenerList = EventListenerHelper.getListenerList(eventClass);
+    }
+
+    /**
+     * @return True if any listener on {@link MinecraftForge#EVENT_BUS} would receive the event
+     */
+    public boolean hasListeners()
+    {
+        // The bus couldn't be identified, so always post the event
+        if (BUS_ID < 0) return true;
+
+        IEventListener[] listeners = listenerList.getListeners(BUS_ID);
+        Snapshot snapshot = this.snapshot;
+        if (snapshot.listeners() != listeners)
+        {   this.snapshot = snapshot = new Snapshot(listeners, containsListeners(listeners));
+        }
+        return snapshot.hasListeners();
+    }
+
+    private static boolean containsListeners(IEventListener[] listeners)
+    {
+        for (IEventListener listener : listeners)
+        {
+            // Each priority is also in the array, as a marker
+            if (!(listener instanceof EventPriority))
+            {   return true;
+            }
+        }
+        return false;
+    }
+
+    private static int getBusId()
+    {
+        try
+        {   return (int) ObfuscationReflectionHelper.findField(EventBus.class, "busID").get(MinecraftForge.EVENT_BUS);
+        }
+        catch (Exception e)
+        {   ColdSweat.LOGGER.error("Failed to get the ID of the Forge event bus. Events will always be posted.", e);
+            return -1;
+        }
+    }
+
+    private record Snapshot(IEventListener[] listeners, boolean hasListeners)
+    {}
+}
@@ -0,0 +1,434 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import com.mojang.datafixers.util.Pair;
+import com.momosoftworks.coldsweat.common.blockentity.HearthBlockEntity;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.Short2ObjectMap;
+import it.unimi.dsi.fastutil.shorts.Short2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.util.Mth;
+import net.minecraft.world.phys.AABB;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Merged area of effect of every thermal source in a level, stored as a sparse grid of chunk sections. Only kept on the server.<br>
+ * Each block holds a shared, interned set of the sources that contain it, so a block costs one cell no matter how many sources overlap it.
+ * This is on top of each source's own {@link SpreadVolume}, and every distinct combination of overlapping sources costs one set.
+ * Cells are stored sparsely, or as palette indices once a section fills up (see {@link Section}). The strongest cooling and heating levels of each set are cached
+ * until any source's levels change.<br>
+ * <br>
+ * Sources add and retract their blocks through the {@link SpreadVolume.SectionListener} set by the {@link ThermalSourceIndex}.
+ */
+public class InsulationField
+{
+    private static final Pair<Integer, Integer> NO_INSULATION = Pair.of(0, 0);
+
+    private final Long2ObjectOpenHashMap<Section> sections = new Long2ObjectOpenHashMap<>();
+    // Interned source sets, keyed by their sorted source IDs
+    private final Map<IntArrayList, SourceSet> sets = new HashMap<>();
+    private final Map<HearthBlockEntity, Integer> sourceIds = new HashMap<>();
+    private final BitSet usedIds = new BitSet();
+    // Incremented when the insulation level of any source changes, which invalidates the cached levels of every set
+    private int levelVersion = 0;
+
+    /**
+     * Assigns the source an ID so it can contribute to the field. Its blocks are added separately
+     */
+    public void addSource(HearthBlockEntity source)
+    {
+        if (!sourceIds.containsKey(source))
+        {   int id = usedIds.nextClearBit(0);
+            usedIds.set(id);
+            sourceIds.put(source, id);
+        }
+    }
+
+    /**
+     * Frees the source's ID. Its blocks must have been retracted first
+     */
+    public void removeSource(HearthBlockEntity source)
+    {
+        Integer id = sourceIds.remove(source);
+        if (id != null)
+        {   usedIds.clear(id);
+        }
+    }
+
+    /**
+     * Called when the cooling or heating level of any source changes
+     */
+    public void onLevelsChanged()
+    {   levelVersion++;
+    }
+
+    public void add(long pos, HearthBlockEntity source)
+    {
+        Integer id = sourceIds.get(source);
+        if (id == null) return;
+
+        Section section = sections.computeIfAbsent(SectionPos.blockToSection(pos), s -> new Section());
+        int index = cellIndex(pos);
+        SourceSet old = section.get(index);
+        SourceSet set = old == null ? this.intern(new int[] {id}, new HearthBlockEntity[] {source}) : old.with(id, source);
+        if (set == old) return;
+
+        section.set(index, set);
+        set.cells++;
+        if (old != null)
+        {   this.release(old);
+        }
+    }
+
+    public void remove(long pos, HearthBlockEntity source)
+    {
+        Integer id = sourceIds.get(source);
+        if (id == null) return;
+
+        long sectionPos = SectionPos.blockToSection(pos);
+        Section section = sections.get(sectionPos);
+        if (section == null) return;
+        int index = cellIndex(pos);
+        SourceSet old = section.get(index);
+        if (old == null || Arrays.binarySearch(old.ids, id) < 0) return;
+
+        SourceSet set = old.without(id);
+        section.set(index, set);
+        if (set != null)
+        {   set.cells++;
+        }
+        else if (section.count == 0)
+        {   sections.remove(sectionPos);
+        }
+        this.release(old);
+    }
+
+    /**
+     * @return The strongest cooling and heating levels (first and second) of the sources that contain the position
+     */
+    public Pair<Integer, Integer> getInsulation(long pos)
+    {
+        SourceSet set = this.getSet(pos);
+        return set != null ? Pair.of(set.getCoolingLevel(), set.getHeatingLevel()) : NO_INSULATION;
+    }
+
+    /**
+     * @return The strongest cooling and heating levels (first and second) of the sources that contain any block within the box.
+     * Bounds are inclusive, like {@link SpreadVolume#intersects(AABB)}
+     */
+    public Pair<Integer, Integer> getInsulation(AABB box)
+    {
+        int cooling = 0;
+        int heating = 0;
+        int x1 = Mth.floor(box.minX), y1 = Mth.floor(box.minY), z1 = Mth.floor(box.minZ);
+        int x2 = Mth.floor(box.maxX), y2 = Mth.floor(box.maxY), z2 = Mth.floor(box.maxZ);
+        for (int x = x1; x <= x2; x++)
+        for (int y = y1; y <= y2; y++)
+        for (int z = z1; z <= z2; z++)
+        {
+            SourceSet set = this.getSet(BlockPos.asLong(x, y, z));
+            if (set != null)
+            {   cooling = Math.max(cooling, set.getCoolingLevel());
+                heating = Math.max(heating, set.getHeatingLevel());
+            }
+        }
+        return cooling == 0 && heating == 0 ? NO_INSULATION : Pair.of(cooling, heating);
+    }
+
+    /**
+     * Adds the sources that contain any block within the box to the given set. Bounds are inclusive, like {@link #getInsulation(AABB)}
+     */
+    public void collectSources(AABB box, Set<HearthBlockEntity> sources)
+    {
+        SourceSet last = null;
+        int x1 = Mth.floor(box.minX), y1 = Mth.floor(box.minY), z1 = Mth.floor(box.minZ);
+        int x2 = Mth.floor(box.maxX), y2 = Mth.floor(box.maxY), z2 = Mth.floor(box.maxZ);
+        for (int x = x1; x <= x2; x++)
+        for (int y = y1; y <= y2; y++)
+        for (int z = z1; z <= z2; z++)
+        {
+            SourceSet set = this.getSet(BlockPos.asLong(x, y, z));
+            // Neighboring blocks usually share a set
+            if (set != null && set != last)
+            {   Collections.addAll(sources, set.sources);
+                last = set;
+            }
+        }
+    }
+
+    /**
+     * @return True if any source contains the position
+     */
+    public boolean contains(long pos)
+    {   return this.getSet(pos) != null;
+    }
+
+    @Nullable
+    private SourceSet getSet(long pos)
+    {
+        Section section = sections.get(SectionPos.blockToSection(pos));
+        return section != null ? section.get(cellIndex(pos)) : null;
+    }
+
+    private SourceSet intern(int[] ids, HearthBlockEntity[] sources)
+    {
+        IntArrayList key = IntArrayList.wrap(ids);
+        SourceSet set = sets.get(key);
+        if (set == null)
+        {   set = new SourceSet(ids, sources);
+            sets.put(key, set);
+        }
+        return set;
+    }
+
+    private void release(SourceSet set)
+    {
+        if (--set.cells == 0)
+        {   sets.remove(IntArrayList.wrap(set.ids));
+            set.alive = false;
+            set.added.clear();
+            set.removed.clear();
+        }
+    }
+
+    private static int cellIndex(long pos)
+    {   return (BlockPos.getY(pos) & 15) << 8 | (BlockPos.getZ(pos) & 15) << 4 | (BlockPos.getX(pos) & 15);
+    }
+
+    /**
+     * The cells of one chunk section. Sections that only have a few cells store them in a map.
+     * Fuller ones store a byte per cell, which indexes a palette of the section's sets. Sections with more sets than fit in the palette
+     * fall back to a reference per cell.
+     */
+    private static class Section
+    {
+        private static final int SPARSE_LIMIT = 256;
+        private static final int MAX_PALETTE_SIZE = 255;
+
+        @Nullable
+        Short2ObjectOpenHashMap<SourceSet> sparse = new Short2ObjectOpenHashMap<>();
+        // Palette index + 1 of each cell, or 0 if the cell is empty
+        @Nullable
+        byte[] indices = null;
+        SourceSet[] palette = null;
+        int[] paletteCounts = null;
+        @Nullable
+        SourceSet[] dense = null;
+        // Number of non-empty cells
+        int count = 0;
+
+        @Nullable
+        SourceSet get(int index)
+        {
+            if (sparse != null) return sparse.get((short) index);
+            if (indices != null)
+            {   int slot = indices[index] & 0xFF;
+                return slot == 0 ? null : palette[slot - 1];
+            }
+            return dense[index];
+        }
+
+        void set(int index, @Nullable SourceSet set)
+        {
+            SourceSet old = this.get(index);
+            if (old == set) return;
+            if (old == null) count++;
+            else if (set == null) count--;
+
+            if (sparse != null)
+            {
+                if (set == null)
+                {   sparse.remove((short) index);
+                }
+                else
+                {   sparse.put((short) index, set);
+                    if (sparse.size() > SPARSE_LIMIT)
+                    {   this.toPaletted();
+                    }
+                }
+            }
+            else if (indices != null)
+            {
+                if (old != null)
+                {   int oldSlot = (indices[index] & 0xFF) - 1;
+                    indices[index] = 0;
+                    if (--paletteCounts[oldSlot] == 0)
+                    {   palette[oldSlot] = null;
+                    }
+                }
+                if (set != null)
+                {
+                    int slot = this.getPaletteSlot(set);
+                    if (slot < 0)
+                    {   this.toDense();
+                        dense[index] = set;
+                    }
+                    else
+                    {   indices[index] = (byte) (slot + 1);
+                        paletteCounts[slot]++;
+                    }
+                }
+            }
+            else dense[index] = set;
+        }
+
+        /**
+         * @return The palette slot holding the set (claiming a free slot if it isn't in the palette), or -1 if the palette is full
+         */
+        private int getPaletteSlot(SourceSet set)
+        {
+            int free = -1;
+            for (int i = 0; i < palette.length; i++)
+            {
+                if (palette[i] == set) return i;
+                if (free < 0 && palette[i] == null) free = i;
+            }
+            if (free < 0)
+            {
+                if (palette.length >= MAX_PALETTE_SIZE) return -1;
+                free = palette.length;
+                int newSize = Math.min(MAX_PALETTE_SIZE, palette.length * 2);
+                palette = Arrays.copyOf(palette, newSize);
+                paletteCounts = Arrays.copyOf(paletteCounts, newSize);
+            }
+            palette[free] = set;
+            return free;
+        }
+
+        private void toPaletted()
+        {
+            Short2ObjectOpenHashMap<SourceSet> cells = sparse;
+            sparse = null;
+            indices = new byte[4096];
+            palette = new SourceSet[4];
+            paletteCounts = new int[4];
+            for (Short2ObjectMap.Entry<SourceSet> entry : cells.short2ObjectEntrySet())
+            {
+                int slot = this.getPaletteSlot(entry.getValue());
+                if (slot < 0)
+                {   // Too many different sets for a palette, so copy the cells directly
+                    sparse = cells;
+                    indices = null;
+                    this.toDense();
+                    return;
+                }
+                indices[entry.getShortKey()] = (byte) (slot + 1);
+                paletteCounts[slot]++;
+            }
+        }
+
+        private void toDense()
+        {
+            SourceSet[] cells = new SourceSet[4096];
+            if (sparse != null)
+            {
+                for (Short2ObjectMap.Entry<SourceSet> entry : sparse.short2ObjectEntrySet())
+                {   cells[entry.getShortKey()] = entry.getValue();
+                }
+            }
+            else for (int i = 0; i < 4096; i++)
+            {   cells[i] = this.get(i);
+            }
+            sparse = null;
+            indices = null;
+            palette = null;
+            paletteCounts = null;
+            dense = cells;
+        }
+    }
+
+    /**
+     * An immutable set of sources, shared by every block that is contained by exactly these sources
+     */
+    private class SourceSet
+    {
+        final int[] ids;
+        final HearthBlockEntity[] sources;
+        // Number of blocks that reference this set
+        int cells = 0;
+        boolean alive = true;
+
+        // Cached transitions to the sets with one source added or removed
+        final Int2ObjectOpenHashMap<SourceSet> added = new Int2ObjectOpenHashMap<>(2);
+        final Int2ObjectOpenHashMap<SourceSet> removed = new Int2ObjectOpenHashMap<>(2);
+
+        int version = -1;
+        int coolingLevel;
+        int heatingLevel;
+
+        SourceSet(int[] ids, HearthBlockEntity[] sources)
+        {   this.ids = ids;
+            this.sources = sources;
+        }
+
+        SourceSet with(int id, HearthBlockEntity source)
+        {
+            int index = Arrays.binarySearch(ids, id);
+            if (index >= 0) return this;
+
+            SourceSet cached = added.get(id);
+            if (cached != null && cached.alive) return cached;
+
+            int insertAt = -index - 1;
+            int[] newIds = new int[ids.length + 1];
+            HearthBlockEntity[] newSources = new HearthBlockEntity[ids.length + 1];
+            System.arraycopy(ids, 0, newIds, 0, insertAt);
+            System.arraycopy(sources, 0, newSources, 0, insertAt);
+            newIds[insertAt] = id;
+            newSources[insertAt] = source;
+            System.arraycopy(ids, insertAt, newIds, insertAt + 1, ids.length - insertAt);
+            System.arraycopy(sources, insertAt, newSources, insertAt + 1, ids.length - insertAt);
+
+            SourceSet set = intern(newIds, newSources);
+            added.put(id, set);
+            return set;
+        }
+
+        @Nullable
+        SourceSet without(int id)
+        {
+            if (ids.length == 1) return null;
+
+            SourceSet cached = removed.get(id);
+            if (cached != null && cached.alive) return cached;
+
+            int index = Arrays.binarySearch(ids, id);
+            int[] newIds = new int[ids.length - 1];
+            HearthBlockEntity[] newSources = new HearthBlockEntity[ids.length - 1];
+            System.arraycopy(ids, 0, newIds, 0, index);
+            System.arraycopy(sources, 0, newSources, 0, index);
+            System.arraycopy(ids, index + 1, newIds, index, ids.length - index - 1);
+            System.arraycopy(sources, index + 1, newSources, index, ids.length - index - 1);
+
+            SourceSet set = intern(newIds, newSources);
+            removed.put(id, set);
+            return set;
+        }
+
+        int getCoolingLevel()
+        {   this.updateLevels();
+            return coolingLevel;
+        }
+
+        int getHeatingLevel()
+        {   this.updateLevels();
+            return heatingLevel;
+        }
+
+        private void updateLevels()
+        {
+            if (version == levelVersion) return;
+            version = levelVersion;
+            coolingLevel = 0;
+            heatingLevel = 0;
+            for (HearthBlockEntity source : sources)
+            {   coolingLevel = Math.max(coolingLevel, source.getCoolingLevel());
+                heatingLevel = Math.max(heatingLevel, source.getHeatingLevel());
+            }
+        }
+    }
+}
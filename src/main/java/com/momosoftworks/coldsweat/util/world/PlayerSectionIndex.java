@@ -0,0 +1,81 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import com.momosoftworks.coldsweat.compat.CompatManager;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.*;
+
+/**
+ * Per-level list of players, shared by every thermal source.<br>
+ * The list is rebuilt at most once per tick, the first time it is queried.
+ * Player positions are transformed out of Valkyrien Skies ships once, when the buckets are built.
+ */
+@Mod.EventBusSubscriber
+public class PlayerSectionIndex
+{
+    private static final Map<Level, PlayerSectionIndex> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Level level;
+    private long lastBuilt = Long.MIN_VALUE;
+    private final List<TrackedPlayer> players = new ArrayList<>();
+
+    private PlayerSectionIndex(Level level)
+    {   this.level = level;
+    }
+
+    public static PlayerSectionIndex get(Level level)
+    {   return INDEXES.computeIfAbsent(level, PlayerSectionIndex::new);
+    }
+
+    /**
+     * @return Every player in the level, with their transformed position and bounding box
+     */
+    public List<TrackedPlayer> getPlayers()
+    {   this.update();
+        return players;
+    }
+
+    /**
+     * @return True if any player is within the given distance of the position
+     */
+    public boolean isPlayerNear(Vec3 pos, double distance)
+    {
+        List<TrackedPlayer> players = this.getPlayers();
+        for (int i = 0; i < players.size(); i++)
+        {
+            if (players.get(i).position().closerThan(pos, distance))
+            {   return true;
+            }
+        }
+        return false;
+    }
+
+    private void update()
+    {
+        long time = level.getGameTime();
+        if (time == lastBuilt) return;
+        lastBuilt = time;
+
+        players.clear();
+        for (Player player : level.players())
+        {
+            players.add(new TrackedPlayer(player,
+                                          CompatManager.Valkyrien.transformIfShipPos(level, player.position()),
+                                          CompatManager.Valkyrien.transformIfShipPos(level, player.getBoundingBox())));
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event)
+    {   INDEXES.remove(event.getLevel());
+    }
+
+    public record TrackedPlayer(Player player, Vec3 position, AABB boundingBox)
+    {}
+}
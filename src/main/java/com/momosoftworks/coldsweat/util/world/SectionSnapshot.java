@@ -0,0 +1,114 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.material.FluidState;
+
+import javax.annotation.Nullable;
+
+/**
+ * A read-only copy of the block states in a set of chunk sections, which can safely be read from other threads.<br>
+ * Positions outside of the copied sections read as {@link Blocks#VOID_AIR}. Block entities are not copied.
+ */
+public class SectionSnapshot implements BlockGetter
+{
+    private final Long2ObjectOpenHashMap<PalettedContainer<BlockState>> sections = new Long2ObjectOpenHashMap<>();
+    private final LongSet spreadSections;
+    private final int minBuildHeight;
+    private final int height;
+
+    private SectionSnapshot(LongSet spreadSections, int minBuildHeight, int height)
+    {   this.spreadSections = spreadSections;
+        this.minBuildHeight = minBuildHeight;
+        this.height = height;
+    }
+
+    /**
+     * Copies the given sections, and the sections above them that are needed to check for sky access.<br>
+     * Sections in unloaded chunks are skipped.
+     * @param skySections How many sections above each given section to copy for sky access checks
+     */
+    public static SectionSnapshot capture(Level level, LongSet spreadSections, int skySections)
+    {
+        SectionSnapshot snapshot = new SectionSnapshot(new LongOpenHashSet(), level.getMinBuildHeight(), level.getHeight());
+        for (LongIterator iterator = spreadSections.iterator(); iterator.hasNext(); )
+        {
+            long section = iterator.nextLong();
+            if (snapshot.copySection(level, section))
+            {   snapshot.spreadSections.add(section);
+                for (int i = 1; i <= skySections; i++)
+                {   snapshot.copySection(level, SectionPos.offset(section, 0, i, 0));
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private boolean copySection(Level level, long section)
+    {
+        if (sections.containsKey(section)) return true;
+
+        ChunkAccess chunk = WorldHelper.getChunk(level, SectionPos.x(section), SectionPos.z(section));
+        if (chunk == null) return false;
+        int index = chunk.getSectionIndexFromSectionY(SectionPos.y(section));
+        if (index < 0 || index >= chunk.getSectionsCount()) return false;
+
+        sections.put(section, chunk.getSection(index).getStates().copy());
+        return true;
+    }
+
+    /**
+     * @return The packed positions of every section that was copied
+     */
+    public LongSet getSections()
+    {   return sections.keySet();
+    }
+
+    /**
+     * @return True if paths at this position can be spread from. Sections only copied for sky access checks are excluded
+     */
+    public boolean canSpreadAt(long pos)
+    {   return spreadSections.contains(SectionPos.blockToSection(pos));
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos)
+    {
+        PalettedContainer<BlockState> states = sections.get(SectionPos.asLong(pos));
+        return states != null
+               ? states.get(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15)
+               : Blocks.VOID_AIR.defaultBlockState();
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos)
+    {   return this.getBlockState(pos).getFluidState();
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(BlockPos pos)
+    {   return null;
+    }
+
+    @Override
+    public int getHeight()
+    {   return height;
+    }
+
+    @Override
+    public int getMinBuildHeight()
+    {   return minBuildHeight;
+    }
+}
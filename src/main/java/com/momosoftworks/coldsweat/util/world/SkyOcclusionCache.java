@@ -0,0 +1,132 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Per-level cache of the highest block in each column that blocks the sky, by the rules of {@link WorldHelper#isSkyOccluder}.<br>
+ * Columns are found lazily, and are forgotten when a block changes at or above their cached height.
+ */
+@Mod.EventBusSubscriber
+public class SkyOcclusionCache
+{
+    private static final Map<Level, SkyOcclusionCache> CACHES = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private final Level level;
+    // Chunk -> Y of the highest sky-blocking block in each of its columns, indexed by z << 4 | x
+    private final Long2ObjectOpenHashMap<int[]> chunks = new Long2ObjectOpenHashMap<>();
+
+    private SkyOcclusionCache(Level level)
+    {   this.level = level;
+    }
+
+    public static SkyOcclusionCache get(Level level)
+    {   return CACHES.computeIfAbsent(level, SkyOcclusionCache::new);
+    }
+
+    @Nullable
+    public static SkyOcclusionCache getIfPresent(Level level)
+    {   return CACHES.get(level);
+    }
+
+    /**
+     * @return The Y level of the highest block in the column that blocks the sky, or one below the level's minimum build height if there is none
+     */
+    public int getOccluderY(ChunkAccess chunk, int x, int z)
+    {
+        long chunkPos = chunk.getPos().toLong();
+        int[] columns = chunks.get(chunkPos);
+        if (columns == null)
+        {   columns = new int[256];
+            Arrays.fill(columns, UNKNOWN);
+            chunks.put(chunkPos, columns);
+        }
+        int index = columnIndex(x, z);
+        int occluderY = columns[index];
+        if (occluderY == UNKNOWN)
+        {   occluderY = this.findOccluderY(chunk, x, z);
+            columns[index] = occluderY;
+        }
+        return occluderY;
+    }
+
+    private int findOccluderY(ChunkAccess chunk, int x, int z)
+    {
+        int minY = level.getMinBuildHeight();
+        // Nothing above the highest non-air block can block the sky
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos(x, chunk.getHeight(Heightmap.Types.WORLD_SURFACE, x & 15, z & 15), z);
+        for (; pos.getY() >= minY; pos.move(0, -1, 0))
+        {
+            if (WorldHelper.isSkyOccluder(level, chunk.getBlockState(pos), pos))
+            {   return pos.getY();
+            }
+        }
+        return minY - 1;
+    }
+
+    /**
+     * Forgets the cached height of the column if the change could have moved it
+     */
+    public static void onBlockChanged(Level level, BlockPos pos, BlockState newState)
+    {
+        SkyOcclusionCache cache = getIfPresent(level);
+        if (cache == null) return;
+        int[] columns = cache.chunks.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        if (columns == null) return;
+
+        int index = columnIndex(pos.getX(), pos.getZ());
+        int occluderY = columns[index];
+        // Blocks below the highest occluder can't change it, and air above it can't either
+        if (occluderY == UNKNOWN || pos.getY() < occluderY
+        || pos.getY() > occluderY && newState.isAir())
+        {   return;
+        }
+        columns[index] = UNKNOWN;
+    }
+
+    private static int columnIndex(int x, int z)
+    {   return (z & 15) << 4 | (x & 15);
+    }
+
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event)
+    {   if (event.getLevel() instanceof Level level)
+        {   removeChunk(level, event.getChunk());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event)
+    {   if (event.getLevel() instanceof Level level)
+        {   removeChunk(level, event.getChunk());
+        }
+    }
+
+    private static void removeChunk(Level level, ChunkAccess chunk)
+    {   SkyOcclusionCache cache = getIfPresent(level);
+        if (cache != null)
+        {   cache.chunks.remove(chunk.getPos().toLong());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event)
+    {   CACHES.remove(event.getLevel());
+    }
+}
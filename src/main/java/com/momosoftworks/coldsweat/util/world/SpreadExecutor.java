@@ -0,0 +1,44 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of background threads that thermal sources use to calculate their area of effect off of the server thread.<br>
+ * Tasks are rejected when the queue is full, in which case the source tries again on a later tick.
+ */
+public class SpreadExecutor
+{
+    private static final int THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 4));
+    private static final int QUEUE_SIZE = 64;
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+                                                                              new ArrayBlockingQueue<>(QUEUE_SIZE),
+                                                                              SpreadExecutor::newThread);
+    static
+    {   EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private static Thread newThread(Runnable runnable)
+    {   Thread thread = new Thread(runnable, "Cold Sweat Spread Worker #" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * @return A future for the task's result, or null if the queue is full
+     */
+    @Nullable
+    public static <T> CompletableFuture<T> submit(Supplier<T> task)
+    {
+        try
+        {   return CompletableFuture.supplyAsync(task, EXECUTOR);
+        }
+        catch (RejectedExecutionException e)
+        {   return null;
+        }
+    }
+}
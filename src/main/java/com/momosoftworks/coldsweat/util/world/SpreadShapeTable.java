@@ -0,0 +1,116 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import com.momosoftworks.coldsweat.common.block.SmokestackBlock;
+import com.momosoftworks.coldsweat.config.ConfigSettings;
+import com.momosoftworks.coldsweat.util.math.CSMath;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.EmptyBlockGetter;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.shapes.CollisionContext;
+import net.minecraft.world.phys.shapes.Shapes;
+import net.minecraft.world.phys.shapes.VoxelShape;
+
+/**
+ * Table of the shape checks used by {@link WorldHelper#isSpreadBlocked}, indexed by {@link Block#BLOCK_STATE_REGISTRY} id.<br>
+ * Each state is checked once, the first time it is seen. The table is cleared when the config is loaded,
+ * since the spread whitelist and blacklist are folded into it.
+ */
+public class SpreadShapeTable
+{
+    // Bits 0-5 are set if the face on that side (by Direction#get3DDataValue()) is full
+    private static final int FULL_FLAT_AXIS = 1 << 6; // Shifted by the axis ordinal
+    private static final int PASSABLE = 1 << 9;
+    private static final int BLOCKED = 1 << 10;
+    private static final int SMOKESTACK = 1 << 11;
+    // The shape depends on the position or surroundings, so it can't be stored
+    public static final int POSITIONAL = 1 << 12;
+    private static final int COMPUTED = 1 << 13;
+
+    private static volatile short[] TABLE = new short[0];
+
+    public static void clear()
+    {   TABLE = new short[0];
+    }
+
+    /**
+     * @return The flags for the state, or {@link #POSITIONAL} if it has to be checked in the world
+     */
+    public static int getFlags(BlockState state)
+    {
+        short[] table = TABLE;
+        if (table.length == 0)
+        {   table = new short[Block.BLOCK_STATE_REGISTRY.size()];
+            TABLE = table;
+        }
+        int id = Block.BLOCK_STATE_REGISTRY.getId(state);
+        if (id < 0 || id >= table.length) return POSITIONAL;
+
+        int flags = table[id];
+        if (flags == 0)
+        {   flags = computeFlags(state);
+            table[id] = (short) flags;
+        }
+        return flags;
+    }
+
+    /**
+     * @param flags Flags from {@link #getFlags(BlockState)} that aren't {@link #POSITIONAL}
+     */
+    public static boolean isSpreadBlocked(int flags, Direction toDir, Direction fromDir)
+    {
+        if ((flags & SMOKESTACK) != 0 && toDir.getAxis() == Direction.Axis.Y) return true;
+        if ((flags & PASSABLE) != 0) return false;
+        if ((flags & BLOCKED) != 0) return true;
+
+               // Should it have spread here in the first place?
+        return (flags & (1 << fromDir.getOpposite().get3DDataValue())) != 0
+               // Can it spread out?
+            || (flags & (FULL_FLAT_AXIS << toDir.getAxis().ordinal())) != 0;
+    }
+
+    private static int computeFlags(BlockState state)
+    {
+        Block block = state.getBlock();
+        int flags = COMPUTED;
+
+        if (block instanceof SmokestackBlock)
+        {   flags |= SMOKESTACK;
+        }
+        if (state.isAir() || ConfigSettings.THERMAL_SOURCE_SPREAD_WHITELIST.get().contains(block))
+        {   return flags | PASSABLE;
+        }
+        if (ConfigSettings.THERMAL_SOURCE_SPREAD_BLACKLIST.get().contains(block))
+        {   return flags | BLOCKED;
+        }
+        if (state.hasOffsetFunction() || block.hasDynamicShape() || state.hasBlockEntity())
+        {   return flags | POSITIONAL;
+        }
+
+        try
+        {
+            VoxelShape shape = state.getShape(EmptyBlockGetter.INSTANCE, BlockPos.ZERO, CollisionContext.empty());
+            if (shape.equals(Shapes.block()))
+            {   return flags | BLOCKED;
+            }
+            for (Direction direction : Direction.values())
+            {
+                if (WorldHelper.isFullSide(shape.getFaceShape(direction), direction))
+                {   flags |= 1 << direction.get3DDataValue();
+                }
+            }
+            for (Direction.Axis axis : Direction.Axis.values())
+            {
+                if (WorldHelper.isFullSide(CSMath.flattenShape(axis, shape), Direction.fromAxisAndDirection(axis, Direction.AxisDirection.POSITIVE)))
+                {   flags |= FULL_FLAT_AXIS << axis.ordinal();
+                }
+            }
+            return flags;
+        }
+        // Some shapes can't be made outside of the world
+        catch (Exception e)
+        {   return flags | POSITIONAL;
+        }
+    }
+}
@@ -0,0 +1,745 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.util.Mth;
+import net.minecraft.world.phys.AABB;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Primitive storage for the area of effect of a thermal source (hearth, boiler, icebox).<br>
+ * Positions are packed with {@link BlockPos#asLong()} and indexed by an open-addressing table.
+ * The direction, frozen state and origin of each path are kept in parallel arrays, so no objects are allocated per path.<br>
+ * <br>
+ * Paths in the range {@code [0, activeSize())} are iterated over while spreading.
+ * "Retired" paths in the range {@code [activeSize(), size())} are still part of the volume, but are no longer ticked.<br>
+ * <br>
+ * This class is not thread-safe.
+ */
+public class SpreadVolume
+{
+    public static final int NO_COLUMN = Integer.MIN_VALUE;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int DIRECTION_MASK = 0x07;
+    private static final int FROZEN = 0x08;
+    // Only used when saving, to mark paths that were retired
+    private static final int RETIRED = 0x10;
+    // Use an occupancy grid if the bounding box has no more than this many empty blocks per path, otherwise save positions directly
+    private static final int MAX_GRID_SPARSENESS = 16;
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Dense path storage
+    private long[] positions = new long[INITIAL_CAPACITY];
+    private long[] origins = new long[INITIAL_CAPACITY];
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    private int size = 0;
+    private int activeSize = 0;
+    // Number of active paths that are frozen
+    private int frozenSize = 0;
+    // Incremented whenever the paths change, so copies can tell if they are out of date
+    private int modCount = 0;
+
+    // Open-addressing index into the dense arrays. Holds (index + 1), so 0 marks an empty slot
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+    private int mask = table.length - 1;
+
+    // Sky access of each column; packed x/z -> (y << 1 | canSeeSky)
+    private final Long2IntOpenHashMap skyColumns = new Long2IntOpenHashMap();
+
+    // Number of paths in each chunk section that the volume overlaps
+    private final Long2IntOpenHashMap sectionCounts = new Long2IntOpenHashMap();
+    private SectionListener sectionListener;
+
+    private Set<BlockPos> positionView;
+    private List<SpreadPath> pathView;
+
+    public SpreadVolume()
+    {   skyColumns.defaultReturnValue(NO_COLUMN);
+    }
+
+    /* Path storage */
+
+    public int size()
+    {   return size;
+    }
+
+    public int activeSize()
+    {   return activeSize;
+    }
+
+    public boolean isEmpty()
+    {   return size == 0;
+    }
+
+    /**
+     * @return A counter that changes whenever a path is added, removed or modified
+     */
+    public int getModCount()
+    {   return modCount;
+    }
+
+    /**
+     * @return The number of active paths that are frozen. When this equals {@link #activeSize()}, the volume has finished spreading
+     */
+    public int frozenSize()
+    {   return frozenSize;
+    }
+
+    public boolean contains(long pos)
+    {   return this.slotOf(pos) != -1;
+    }
+
+    public boolean contains(int x, int y, int z)
+    {   return this.slotOf(BlockPos.asLong(x, y, z)) != -1;
+    }
+
+    /**
+     * @return True if any block within the given bounds is in the volume. Bounds are inclusive, like {@link BlockPos#betweenClosed(AABB)}
+     */
+    public boolean intersects(double minX, double minY, double minZ, double maxX, double maxY, double maxZ)
+    {
+        int x1 = Mth.floor(minX), y1 = Mth.floor(minY), z1 = Mth.floor(minZ);
+        int x2 = Mth.floor(maxX), y2 = Mth.floor(maxY), z2 = Mth.floor(maxZ);
+        for (int x = x1; x <= x2; x++)
+        for (int y = y1; y <= y2; y++)
+        for (int z = z1; z <= z2; z++)
+        {
+            if (this.contains(x, y, z)) return true;
+        }
+        return false;
+    }
+
+    public boolean intersects(AABB box)
+    {   return this.intersects(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ);
+    }
+
+    /**
+     * @return The index of the path at the given position, or -1 if it is not in the volume
+     */
+    public int indexOf(long pos)
+    {   int slot = this.slotOf(pos);
+        return slot == -1 ? -1 : table[slot] - 1;
+    }
+
+    /**
+     * Adds a new active path to the volume
+     * @return False if the position is already in the volume
+     */
+    public boolean add(long pos, Direction direction, long origin)
+    {
+        int slot = (int) HashCommon.mix(pos) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0)
+        {
+            if (positions[entry - 1] == pos) return false;
+            slot = (slot + 1) & mask;
+        }
+        int[] oldTable = table;
+        this.ensureCapacity(size + 1);
+        // The table may have been rebuilt, so find a free slot again
+        if (table != oldTable)
+        {   slot = this.freeSlotFor(pos);
+        }
+
+        // Keep active paths contiguous by moving the first retired path to the end
+        int index = activeSize;
+        if (index < size)
+        {   this.move(index, size);
+        }
+        positions[index] = pos;
+        origins[index] = origin;
+        flags[index] = (byte) direction.ordinal();
+        table[slot] = index + 1;
+        size++;
+        activeSize++;
+        modCount++;
+
+        long section = SectionPos.blockToSection(pos);
+        if (sectionListener != null)
+        {   if (sectionCounts.addTo(section, 1) == 0)
+            {   sectionListener.onSectionAdded(section);
+            }
+            sectionListener.onPositionAdded(pos);
+        }
+        else sectionCounts.addTo(section, 1);
+        return true;
+    }
+
+    /**
+     * Removes the path at the given index from the volume entirely.<br>
+     * The path at this index is replaced by another, so iterators should re-check the same index.
+     */
+    public void remove(int index)
+    {
+        long section = SectionPos.blockToSection(positions[index]);
+        if (sectionListener != null)
+        {   sectionListener.onPositionRemoved(positions[index]);
+        }
+        if (sectionCounts.addTo(section, -1) == 1)
+        {   sectionCounts.remove(section);
+            if (sectionListener != null)
+            {   sectionListener.onSectionRemoved(section);
+            }
+        }
+        this.deleteSlot(this.slotOf(positions[index]));
+        if (index < activeSize)
+        {   if (this.isFrozen(index)) frozenSize--;
+            this.move(activeSize - 1, index);
+            this.move(size - 1, activeSize - 1);
+            activeSize--;
+        }
+        else
+        {   this.move(size - 1, index);
+        }
+        size--;
+        modCount++;
+    }
+
+    public boolean remove(long pos)
+    {   int index = this.indexOf(pos);
+        if (index == -1) return false;
+        this.remove(index);
+        return true;
+    }
+
+    /**
+     * Stops the path at the given index from being ticked, while keeping it in the volume.<br>
+     * The path at this index is replaced by another, so iterators should re-check the same index.
+     */
+    public void retire(int index)
+    {
+        if (index >= activeSize) return;
+        if (this.isFrozen(index)) frozenSize--;
+        this.swap(index, activeSize - 1);
+        activeSize--;
+        modCount++;
+    }
+
+    /**
+     * Makes a retired path active again, so it is ticked while spreading
+     * @return The new index of the path
+     */
+    public int activate(int index)
+    {
+        if (index < activeSize) return index;
+        int newIndex = activeSize;
+        this.swap(index, newIndex);
+        activeSize++;
+        modCount++;
+        if (this.isFrozen(newIndex)) frozenSize++;
+        return newIndex;
+    }
+
+    public void clear()
+    {
+        if (sectionListener != null)
+        {   for (int i = 0; i < size; i++)
+            {   sectionListener.onPositionRemoved(positions[i]);
+            }
+        }
+        Arrays.fill(table, 0);
+        size = 0;
+        activeSize = 0;
+        frozenSize = 0;
+        modCount++;
+        if (sectionListener != null)
+        {   for (LongIterator iterator = sectionCounts.keySet().iterator(); iterator.hasNext(); )
+            {   sectionListener.onSectionRemoved(iterator.nextLong());
+            }
+        }
+        sectionCounts.clear();
+    }
+
+    public long getPos(int index)
+    {   return positions[index];
+    }
+
+    public Direction getDirection(int index)
+    {   return DIRECTIONS[flags[index] & DIRECTION_MASK];
+    }
+
+    public void setDirection(int index, Direction direction)
+    {   flags[index] = (byte) ((flags[index] & ~DIRECTION_MASK) | direction.ordinal());
+        modCount++;
+    }
+
+    public boolean isFrozen(int index)
+    {   return (flags[index] & FROZEN) != 0;
+    }
+
+    public void setFrozen(int index, boolean frozen)
+    {   if (index < activeSize && frozen != this.isFrozen(index))
+        {   frozenSize += frozen ? 1 : -1;
+        }
+        flags[index] = (byte) (frozen ? flags[index] | FROZEN : flags[index] & ~FROZEN);
+        modCount++;
+    }
+
+    public long getOrigin(int index)
+    {   return origins[index];
+    }
+
+    public void setOrigin(int index, long origin)
+    {   origins[index] = origin;
+        modCount++;
+    }
+
+    /* Copies */
+
+    /**
+     * @return An independent copy of the volume's paths and sky states, without a section listener
+     */
+    public SpreadVolume copy()
+    {
+        SpreadVolume copy = new SpreadVolume();
+        copy.positions = positions.clone();
+        copy.origins = origins.clone();
+        copy.flags = flags.clone();
+        copy.size = size;
+        copy.activeSize = activeSize;
+        copy.frozenSize = frozenSize;
+        copy.table = table.clone();
+        copy.mask = mask;
+        copy.skyColumns.putAll(skyColumns);
+        copy.sectionCounts.putAll(sectionCounts);
+        return copy;
+    }
+
+    /**
+     * Replaces the contents of this volume with those of another. The section listener is notified of any sections and positions that changed
+     */
+    public void copyFrom(SpreadVolume other)
+    {
+        if (sectionListener != null)
+        {
+            for (int i = 0; i < size; i++)
+            {   if (!other.contains(positions[i])) sectionListener.onPositionRemoved(positions[i]);
+            }
+            for (int i = 0; i < other.size; i++)
+            {   if (!this.contains(other.positions[i])) sectionListener.onPositionAdded(other.positions[i]);
+            }
+            for (LongIterator iterator = sectionCounts.keySet().iterator(); iterator.hasNext(); )
+            {   long section = iterator.nextLong();
+                if (!other.sectionCounts.containsKey(section)) sectionListener.onSectionRemoved(section);
+            }
+            for (LongIterator iterator = other.sectionCounts.keySet().iterator(); iterator.hasNext(); )
+            {   long section = iterator.nextLong();
+                if (!sectionCounts.containsKey(section)) sectionListener.onSectionAdded(section);
+            }
+        }
+        positions = other.positions.clone();
+        origins = other.origins.clone();
+        flags = other.flags.clone();
+        size = other.size;
+        activeSize = other.activeSize;
+        frozenSize = other.frozenSize;
+        table = other.table.clone();
+        mask = other.mask;
+        skyColumns.clear();
+        skyColumns.putAll(other.skyColumns);
+        sectionCounts.clear();
+        sectionCounts.putAll(other.sectionCounts);
+        modCount++;
+    }
+
+    /* Serialization */
+
+    /**
+     * Writes the volume to NBT.<br>
+     * Dense volumes are saved as an occupancy grid over their bounding box relative to the given position, with one bit per block.
+     * Each path also stores a byte of direction & state flags, and an index into a palette of origins.<br>
+     * Sky states are not saved.
+     * @return The serialized volume, or null if it has too many origins to be saved
+     */
+    @Nullable
+    public CompoundTag serialize(BlockPos relativeTo)
+    {
+        CompoundTag tag = new CompoundTag();
+        if (size == 0) return tag;
+
+        // Palette of origins
+        Long2IntOpenHashMap originIds = new Long2IntOpenHashMap();
+        LongArrayList palette = new LongArrayList();
+        for (int i = 0; i < size; i++)
+        {
+            if (!originIds.containsKey(origins[i]))
+            {   originIds.put(origins[i], palette.size());
+                palette.add(origins[i]);
+            }
+        }
+        if (palette.size() > 256) return null;
+
+        // Bounding box
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++)
+        {
+            long pos = positions[i];
+            minX = Math.min(minX, BlockPos.getX(pos)); maxX = Math.max(maxX, BlockPos.getX(pos));
+            minY = Math.min(minY, BlockPos.getY(pos)); maxY = Math.max(maxY, BlockPos.getY(pos));
+            minZ = Math.min(minZ, BlockPos.getZ(pos)); maxZ = Math.max(maxZ, BlockPos.getZ(pos));
+        }
+        int sizeX = maxX - minX + 1;
+        int sizeY = maxY - minY + 1;
+        int sizeZ = maxZ - minZ + 1;
+        long gridSize = (long) sizeX * sizeY * sizeZ;
+
+        // Order of the paths as they are written
+        int[] order = new int[size];
+        if (gridSize <= (long) size * MAX_GRID_SPARSENESS)
+        {
+            long[] grid = new long[(int) ((gridSize + 63) >> 6)];
+            int written = 0;
+            for (int x = 0; x < sizeX; x++)
+            for (int y = 0; y < sizeY; y++)
+            for (int z = 0; z < sizeZ; z++)
+            {
+                int index = this.indexOf(BlockPos.asLong(minX + x, minY + y, minZ + z));
+                if (index != -1)
+                {   int bit = (x * sizeY + y) * sizeZ + z;
+                    grid[bit >> 6] |= 1L << (bit & 63);
+                    order[written++] = index;
+                }
+            }
+            tag.putIntArray("Bounds", new int[] { minX - relativeTo.getX(), minY - relativeTo.getY(), minZ - relativeTo.getZ(), sizeX, sizeY, sizeZ });
+            tag.putLongArray("Grid", grid);
+        }
+        else
+        {
+            long[] packed = new long[size];
+            for (int i = 0; i < size; i++)
+            {   order[i] = i;
+                packed[i] = positions[i];
+            }
+            tag.putLongArray("Positions", packed);
+        }
+
+        byte[] pathFlags = new byte[size];
+        byte[] pathOrigins = new byte[size];
+        for (int i = 0; i < size; i++)
+        {
+            int index = order[i];
+            pathFlags[i] = (byte) (flags[index] | (index >= activeSize ? RETIRED : 0));
+            pathOrigins[i] = (byte) originIds.get(origins[index]);
+        }
+        tag.putByteArray("Flags", pathFlags);
+        tag.putLongArray("Origins", palette.toLongArray());
+        if (palette.size() > 1)
+        {   tag.putByteArray("OriginIds", pathOrigins);
+        }
+        return tag;
+    }
+
+    /**
+     * Replaces the contents of the volume with paths read from {@link #serialize(BlockPos)}
+     */
+    public void deserialize(CompoundTag tag, BlockPos relativeTo)
+    {
+        this.clear();
+        byte[] pathFlags = tag.getByteArray("Flags");
+        long[] palette = tag.getLongArray("Origins");
+        byte[] pathOrigins = tag.getByteArray("OriginIds");
+        if (pathFlags.length == 0 || palette.length == 0) return;
+
+        long[] packed;
+        if (tag.contains("Grid"))
+        {
+            int[] bounds = tag.getIntArray("Bounds");
+            long[] grid = tag.getLongArray("Grid");
+            int minX = relativeTo.getX() + bounds[0], minY = relativeTo.getY() + bounds[1], minZ = relativeTo.getZ() + bounds[2];
+            int sizeY = bounds[4], sizeZ = bounds[5];
+            packed = new long[pathFlags.length];
+            int read = 0;
+            for (int word = 0; word < grid.length && read < packed.length; word++)
+            {
+                long bits = grid[word];
+                while (bits != 0 && read < packed.length)
+                {
+                    int bit = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    int z = bit % sizeZ;
+                    int y = (bit / sizeZ) % sizeY;
+                    int x = bit / (sizeZ * sizeY);
+                    packed[read++] = BlockPos.asLong(minX + x, minY + y, minZ + z);
+                }
+            }
+        }
+        else packed = tag.getLongArray("Positions");
+
+        int count = Math.min(packed.length, pathFlags.length);
+        // Add active paths first, then retire the rest as they are added so they stay at the end
+        for (int pass = 0; pass < 2; pass++)
+        {
+            boolean retired = pass == 1;
+            for (int i = 0; i < count; i++)
+            {
+                int flag = pathFlags[i];
+                if (((flag & RETIRED) != 0) != retired) continue;
+
+                long origin = palette[pathOrigins.length > i ? pathOrigins[i] & 0xFF : 0];
+                if (this.add(packed[i], DIRECTIONS[Math.min(flag & DIRECTION_MASK, DIRECTIONS.length - 1)], origin))
+                {   this.setFrozen(activeSize - 1, (flag & FROZEN) != 0);
+                    if (retired) this.retire(activeSize - 1);
+                }
+            }
+        }
+    }
+
+    /* Chunk sections */
+
+    /**
+     * @return The packed positions ({@link SectionPos#asLong()}) of every chunk section that the volume overlaps
+     */
+    public LongSet getSections()
+    {   return sectionCounts.keySet();
+    }
+
+    public boolean overlapsSection(long section)
+    {   return sectionCounts.containsKey(section);
+    }
+
+    /**
+     * Sets a listener that is notified when the volume starts or stops overlapping a chunk section, and when positions are added or removed
+     */
+    public void setSectionListener(SectionListener listener)
+    {   this.sectionListener = listener;
+    }
+
+    public interface SectionListener
+    {
+        void onSectionAdded(long section);
+
+        void onSectionRemoved(long section);
+
+        default void onPositionAdded(long pos) {}
+
+        default void onPositionRemoved(long pos) {}
+    }
+
+    /* Sky access */
+
+    /**
+     * @return The packed sky state of the column, or {@link #NO_COLUMN} if it hasn't been checked.
+     * Unpack with {@link #getColumnY(int)} and {@link #canColumnSeeSky(int)}
+     */
+    public int getSkyState(int x, int z)
+    {   return skyColumns.get(columnKey(x, z));
+    }
+
+    public void setSkyState(int x, int z, int y, boolean canSeeSky)
+    {   skyColumns.put(columnKey(x, z), (y << 1) | (canSeeSky ? 1 : 0));
+    }
+
+    public void removeSkyState(int x, int z)
+    {   skyColumns.remove(columnKey(x, z));
+    }
+
+    public void clearSkyStates()
+    {   skyColumns.clear();
+    }
+
+    public static int getColumnY(int skyState)
+    {   return skyState >> 1;
+    }
+
+    public static boolean canColumnSeeSky(int skyState)
+    {   return (skyState & 1) != 0;
+    }
+
+    /* Read-only views */
+
+    /**
+     * @return A read-only view of every position in the volume
+     */
+    public Set<BlockPos> asPositionSet()
+    {
+        if (positionView == null)
+        {
+            positionView = new AbstractSet<>()
+            {
+                @Override
+                public boolean contains(Object o)
+                {   return o instanceof BlockPos pos && SpreadVolume.this.contains(pos.asLong());
+                }
+
+                @Override
+                public Iterator<BlockPos> iterator()
+                {
+                    return new Iterator<>()
+                    {
+                        int index = 0;
+
+                        @Override
+                        public boolean hasNext()
+                        {   return index < size;
+                        }
+
+                        @Override
+                        public BlockPos next()
+                        {   if (index >= size) throw new NoSuchElementException();
+                            return BlockPos.of(positions[index++]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size()
+                {   return size;
+                }
+            };
+        }
+        return positionView;
+    }
+
+    /**
+     * @return A read-only view of the active paths. Each call to {@link List#get(int)} creates a new {@link SpreadPath}
+     */
+    public List<SpreadPath> asPathList()
+    {
+        if (pathView == null)
+        {
+            pathView = new AbstractList<>()
+            {
+                @Override
+                public SpreadPath get(int index)
+                {
+                    Objects.checkIndex(index, activeSize);
+                    SpreadPath path = new SpreadPath(BlockPos.of(positions[index]), getDirection(index)).setOrigin(BlockPos.of(origins[index]));
+                    path.frozen = isFrozen(index);
+                    return path;
+                }
+
+                @Override
+                public int size()
+                {   return activeSize;
+                }
+            };
+        }
+        return pathView;
+    }
+
+    /* Internal */
+
+    private static long columnKey(int x, int z)
+    {   return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    private int slotOf(long pos)
+    {
+        int slot = (int) HashCommon.mix(pos) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0)
+        {
+            if (positions[entry - 1] == pos) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the table slot pointing to the given index, regardless of what is currently stored at that index
+     */
+    private int slotOfEntry(long pos, int index)
+    {
+        int slot = (int) HashCommon.mix(pos) & mask;
+        while (table[slot] != index + 1)
+        {   slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int freeSlotFor(long pos)
+    {
+        int slot = (int) HashCommon.mix(pos) & mask;
+        while (table[slot] != 0)
+        {   slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Removes a slot from the table, shifting following entries back so that probing stays unbroken
+     */
+    private void deleteSlot(int slot)
+    {
+        int last;
+        int entry;
+        while (true)
+        {
+            slot = ((last = slot) + 1) & mask;
+            while (true)
+            {
+                if ((entry = table[slot]) == 0)
+                {   table[last] = 0;
+                    return;
+                }
+                int ideal = (int) HashCommon.mix(positions[entry - 1]) & mask;
+                if (last <= slot ? last >= ideal || ideal > slot : last >= ideal && ideal > slot) break;
+                slot = (slot + 1) & mask;
+            }
+            table[last] = entry;
+        }
+    }
+
+    /**
+     * Swaps the paths at two indices in the dense arrays, updating their table slots
+     */
+    private void swap(int a, int b)
+    {
+        if (a == b) return;
+        int slotA = this.slotOfEntry(positions[a], a);
+        int slotB = this.slotOfEntry(positions[b], b);
+        long pos = positions[a];
+        long origin = origins[a];
+        byte flag = flags[a];
+        positions[a] = positions[b];
+        origins[a] = origins[b];
+        flags[a] = flags[b];
+        positions[b] = pos;
+        origins[b] = origin;
+        flags[b] = flag;
+        table[slotA] = b + 1;
+        table[slotB] = a + 1;
+    }
+
+    /**
+     * Moves a path to another index in the dense arrays, updating its table slot
+     */
+    private void move(int from, int to)
+    {
+        if (from == to) return;
+        table[this.slotOfEntry(positions[from], from)] = to + 1;
+        positions[to] = positions[from];
+        origins[to] = origins[from];
+        flags[to] = flags[from];
+    }
+
+    private void ensureCapacity(int capacity)
+    {
+        if (capacity > positions.length)
+        {   int newLength = Math.max(capacity, positions.length + (positions.length >> 1));
+            positions = Arrays.copyOf(positions, newLength);
+            origins = Arrays.copyOf(origins, newLength);
+            flags = Arrays.copyOf(flags, newLength);
+        }
+        // Keep the table at most half full
+        if (capacity * 2 > table.length)
+        {
+            table = new int[HashCommon.nextPowerOfTwo(capacity * 2)];
+            mask = table.length - 1;
+            for (int i = 0; i < size; i++)
+            {   table[this.freeSlotFor(positions[i])] = i + 1;
+            }
+        }
+    }
+}
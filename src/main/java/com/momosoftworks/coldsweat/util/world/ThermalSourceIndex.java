@@ -0,0 +1,394 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import com.mojang.datafixers.util.Pair;
+import com.momosoftworks.coldsweat.api.event.vanilla.BlockStateChangedEvent;
+import com.momosoftworks.coldsweat.common.blockentity.HearthBlockEntity;
+import com.momosoftworks.coldsweat.common.event.HearthSaveDataHandler;
+import com.momosoftworks.coldsweat.util.entity.DummyPlayer;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.ChunkWatchEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Per-level index of thermal sources (hearths, boilers, iceboxes), keyed by the chunk sections their volumes overlap.<br>
+ * Block changes are routed only to the sources whose volume overlaps the changed section,
+ * instead of every source listening on the event bus.<br>
+ * Changes in the column above a source (its smokestack) are routed to it as well, on both sides.<br>
+ * On the server, the volumes of all sources are also merged into an {@link InsulationField}, which answers position insulation queries with one lookup.
+ * Players are insulated from the field as well, with one lookup per player. Each source in the cells they overlap then applies its effects
+ * and decides its smart hearth fuel use.
+ */
+@Mod.EventBusSubscriber
+public class ThermalSourceIndex
+{
+    private static final Map<LevelAccessor, ThermalSourceIndex> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    // Chunk section -> sources whose volume overlaps it
+    private final Long2ObjectOpenHashMap<List<HearthBlockEntity>> sections = new Long2ObjectOpenHashMap<>();
+    private final Set<HearthBlockEntity> sources = new HashSet<>();
+    // Block column (see columnKey()) -> sources in that column
+    private final Long2ObjectOpenHashMap<List<HearthBlockEntity>> columns = new Long2ObjectOpenHashMap<>();
+    // Chunk (see ChunkPos#toLong()) -> sources in that chunk
+    private final Long2ObjectOpenHashMap<List<HearthBlockEntity>> chunks = new Long2ObjectOpenHashMap<>();
+    // Null on the client, where insulation isn't computed
+    @Nullable
+    private final InsulationField insulationField;
+    // Sections copied for off-thread work, which is discarded if a block in them changes
+    private final List<SectionWatch> watches = new ArrayList<>();
+    // Chunk section -> change counter, which is given a new value whenever a block in the section changes. Only counted on the server
+    private final Long2IntOpenHashMap sectionChanges = new Long2IntOpenHashMap();
+    private int changeClock = 0;
+    // Reused by each insulation pass
+    private final Set<HearthBlockEntity> insulatingSources = new HashSet<>();
+    private final Set<HearthBlockEntity> playerSources = new HashSet<>();
+
+    public static ThermalSourceIndex get(LevelAccessor level)
+    {   return INDEXES.computeIfAbsent(level, l -> new ThermalSourceIndex(l.isClientSide()));
+    }
+
+    private ThermalSourceIndex(boolean isClientSide)
+    {   this.insulationField = isClientSide ? null : new InsulationField();
+    }
+
+    @Nullable
+    public static ThermalSourceIndex getIfPresent(LevelAccessor level)
+    {   return INDEXES.get(level);
+    }
+
+    /**
+     * Starts tracking the source. The sections it overlaps are kept up-to-date as its volume changes.
+     */
+    public void addSource(HearthBlockEntity source)
+    {
+        if (sources.add(source))
+        {
+            BlockPos pos = source.getBlockPos();
+            HearthSaveDataHandler.HEARTH_POSITIONS.add(getLevelPos(source));
+            columns.computeIfAbsent(columnKey(pos), c -> new ArrayList<>(1)).add(source);
+            chunks.computeIfAbsent(ChunkPos.asLong(pos), c -> new ArrayList<>(1)).add(source);
+
+            SpreadVolume volume = source.getVolume();
+            for (LongIterator iterator = volume.getSections().iterator(); iterator.hasNext(); )
+            {   this.addToSection(iterator.nextLong(), source);
+            }
+            if (insulationField != null)
+            {
+                insulationField.addSource(source);
+                for (int i = 0; i < volume.size(); i++)
+                {   insulationField.add(volume.getPos(i), source);
+                }
+            }
+            volume.setSectionListener(new SpreadVolume.SectionListener()
+            {
+                @Override
+                public void onSectionAdded(long section)
+                {   addToSection(section, source);
+                }
+
+                @Override
+                public void onSectionRemoved(long section)
+                {   removeFromSection(section, source);
+                }
+
+                @Override
+                public void onPositionAdded(long pos)
+                {   if (insulationField != null) insulationField.add(pos, source);
+                    source.onVolumePositionAdded(pos);
+                }
+
+                @Override
+                public void onPositionRemoved(long pos)
+                {   if (insulationField != null) insulationField.remove(pos, source);
+                    source.onVolumePositionRemoved(pos);
+                }
+            });
+        }
+    }
+
+    public void removeSource(HearthBlockEntity source)
+    {
+        if (sources.remove(source))
+        {
+            BlockPos pos = source.getBlockPos();
+            HearthSaveDataHandler.HEARTH_POSITIONS.remove(getLevelPos(source));
+            removeFromBucket(columns, columnKey(pos), source);
+            removeFromBucket(chunks, ChunkPos.asLong(pos), source);
+
+            SpreadVolume volume = source.getVolume();
+            volume.setSectionListener(null);
+            for (LongIterator iterator = volume.getSections().iterator(); iterator.hasNext(); )
+            {   this.removeFromSection(iterator.nextLong(), source);
+            }
+            if (insulationField != null)
+            {
+                for (int i = 0; i < volume.size(); i++)
+                {   insulationField.remove(volume.getPos(i), source);
+                }
+                insulationField.removeSource(source);
+            }
+        }
+    }
+
+    public boolean contains(HearthBlockEntity source)
+    {   return sources.contains(source);
+    }
+
+    public Collection<HearthBlockEntity> getSources()
+    {   return Collections.unmodifiableSet(sources);
+    }
+
+    /**
+     * @return The sources whose volume overlaps the chunk section at the given {@link SectionPos#asLong()}
+     */
+    public List<HearthBlockEntity> getSourcesInSection(long section)
+    {   List<HearthBlockEntity> list = sections.get(section);
+        return list != null ? list : Collections.emptyList();
+    }
+
+    /**
+     * @return The strongest cooling and heating levels (first and second) of the sources whose volume contains the position
+     */
+    public Pair<Integer, Integer> getInsulationAt(BlockPos pos)
+    {   return insulationField != null ? insulationField.getInsulation(pos.asLong()) : Pair.of(0, 0);
+    }
+
+    /**
+     * @return The merged insulation field of the level's sources, or null on the client
+     */
+    @Nullable
+    public InsulationField getInsulationField()
+    {   return insulationField;
+    }
+
+    /**
+     * @return A counter that changes whenever a block in the chunk section changes, so sources can tell if anything they depend on has changed
+     */
+    public int getSectionChangeCount(long section)
+    {   return sectionChanges.get(section);
+    }
+
+    /**
+     * Starts watching the given sections for block changes, until {@link #unwatch(SectionWatch)} is called
+     */
+    public SectionWatch watch(LongSet sections)
+    {   SectionWatch watch = new SectionWatch(sections);
+        watches.add(watch);
+        return watch;
+    }
+
+    public void unwatch(SectionWatch watch)
+    {   watches.remove(watch);
+    }
+
+    private static Pair<BlockPos, ResourceLocation> getLevelPos(HearthBlockEntity source)
+    {   return Pair.of(source.getBlockPos(), source.getLevel().dimension().location());
+    }
+
+    /**
+     * @return The key of the block column containing the position in {@link #columns}
+     */
+    private static long columnKey(BlockPos pos)
+    {   return BlockPos.asLong(pos.getX(), 0, pos.getZ());
+    }
+
+    private void addToSection(long section, HearthBlockEntity source)
+    {   List<HearthBlockEntity> list = sections.computeIfAbsent(section, s -> new ArrayList<>(2));
+        if (!list.contains(source))
+        {   list.add(source);
+        }
+    }
+
+    private void removeFromSection(long section, HearthBlockEntity source)
+    {   removeFromBucket(sections, section, source);
+    }
+
+    private static void removeFromBucket(Long2ObjectOpenHashMap<List<HearthBlockEntity>> buckets, long key, HearthBlockEntity source)
+    {
+        List<HearthBlockEntity> list = buckets.get(key);
+        if (list != null)
+        {   list.remove(source);
+            if (list.isEmpty())
+            {   buckets.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Forwards block changes only to sources whose volume overlaps the changed section
+     */
+    @SubscribeEvent
+    public static void onBlockStateChanged(BlockStateChangedEvent event)
+    {
+        ThermalSourceIndex index = getIfPresent(event.getLevel());
+        if (index == null) return;
+
+        long section = SectionPos.blockToSection(event.getPosition().asLong());
+        List<HearthBlockEntity> sources = index.sections.get(section);
+        if (sources == null) return;
+
+        for (int i = 0; i < sources.size(); i++)
+        {   sources.get(i).onBlockUpdate(event);
+        }
+    }
+
+    /**
+     * Called immediately when a block changes on the server, unlike {@link BlockStateChangedEvent}, which is delayed.<br>
+     * Counts the change in the section, and marks off-thread work that copied the section as stale before it can be committed.
+     */
+    public static void onSectionBlockChanged(LevelAccessor level, BlockPos pos)
+    {
+        ThermalSourceIndex index = getIfPresent(level);
+        if (index == null) return;
+
+        long section = SectionPos.blockToSection(pos.asLong());
+        // A level-wide clock is used, so a section's counter never goes back to a value it had before it was forgotten
+        index.sectionChanges.put(section, ++index.changeClock);
+        for (int i = 0; i < index.watches.size(); i++)
+        {   index.watches.get(i).onBlockChanged(section);
+        }
+    }
+
+    /**
+     * Called immediately when a block changes, on both sides. Notifies sources whose smokestack column contains the change
+     */
+    public static void onColumnBlockChanged(LevelAccessor level, BlockPos pos)
+    {
+        ThermalSourceIndex index = getIfPresent(level);
+        if (index == null) return;
+
+        List<HearthBlockEntity> sources = index.columns.get(columnKey(pos));
+        if (sources == null) return;
+
+        for (int i = 0; i < sources.size(); i++)
+        {
+            HearthBlockEntity source = sources.get(i);
+            if (pos.getY() > source.getBlockPos().getY())
+            {   source.onStackBlockChanged();
+            }
+        }
+    }
+
+    /**
+     * Players that start tracking a chunk need to be sent the volumes of the sources in it
+     */
+    @SubscribeEvent
+    public static void onChunkWatch(ChunkWatchEvent.Watch event)
+    {
+        ThermalSourceIndex index = getIfPresent(event.getLevel());
+        if (index == null) return;
+
+        List<HearthBlockEntity> sources = index.chunks.get(event.getPos().toLong());
+        if (sources == null) return;
+
+        for (int i = 0; i < sources.size(); i++)
+        {   sources.get(i).onStartTracking(event.getPlayer());
+        }
+    }
+
+    /**
+     * Change counters aren't kept for unloaded chunks
+     */
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event)
+    {
+        ThermalSourceIndex index = getIfPresent(event.getLevel());
+        if (index == null || index.sectionChanges.isEmpty()) return;
+
+        ChunkAccess chunk = event.getChunk();
+        ChunkPos chunkPos = chunk.getPos();
+        for (int sectionY = chunk.getMinSection(); sectionY < chunk.getMaxSection(); sectionY++)
+        {   index.sectionChanges.remove(SectionPos.asLong(chunkPos.x, sectionY, chunkPos.z));
+        }
+    }
+
+    /**
+     * Insulates every player in the level from the sources whose volume they stand in.
+     * Players are looked up in the {@link InsulationField} once, and each running source in the cells they overlap insulates them.
+     */
+    private void insulatePlayers(Level level)
+    {
+        for (HearthBlockEntity source : sources)
+        {
+            if (source.canInsulatePlayers())
+            {   source.beginInsulatingPlayers();
+                insulatingSources.add(source);
+            }
+        }
+        if (insulatingSources.isEmpty()) return;
+
+        List<PlayerSectionIndex.TrackedPlayer> players = PlayerSectionIndex.get(level).getPlayers();
+        for (int i = 0; i < players.size(); i++)
+        {
+            PlayerSectionIndex.TrackedPlayer player = players.get(i);
+            if (player.player() instanceof DummyPlayer) continue;
+
+            insulationField.collectSources(player.boundingBox().deflate(0.1), playerSources);
+            for (HearthBlockEntity source : playerSources)
+            {   if (insulatingSources.contains(source)) source.insulatePlayer(player.player());
+            }
+            playerSources.clear();
+        }
+
+        for (HearthBlockEntity source : insulatingSources)
+        {   source.finishInsulatingPlayers();
+        }
+        insulatingSources.clear();
+    }
+
+    @SubscribeEvent
+    public static void onLevelTick(TickEvent.LevelTickEvent event)
+    {
+        if (event.phase == TickEvent.Phase.END && !event.level.isClientSide && event.level.getGameTime() % 5 == 0)
+        {
+            ThermalSourceIndex index = getIfPresent(event.level);
+            if (index != null && index.insulationField != null)
+            {   index.insulatePlayers(event.level);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event)
+    {   INDEXES.remove(event.getLevel());
+    }
+
+    /**
+     * Tracks whether a block has changed in any of a set of sections since the watch started
+     */
+    public static class SectionWatch
+    {
+        private final LongSet sections;
+        private volatile boolean changed = false;
+
+        private SectionWatch(LongSet sections)
+        {   this.sections = sections;
+        }
+
+        private void onBlockChanged(long section)
+        {   if (sections.contains(section))
+            {   changed = true;
+            }
+        }
+
+        public boolean isChanged()
+        {   return changed;
+        }
+    }
+}
@@ -8,7 +8,6 @@ import com.momosoftworks.coldsweat.api.temperature.modifier.*;
 import com.momosoftworks.coldsweat.api.util.Placement;
 import com.momosoftworks.coldsweat.api.util.Temperature;
 import com.momosoftworks.coldsweat.common.block.SmokestackBlock;
-import com.momosoftworks.coldsweat.common.blockentity.HearthBlockEntity;
 import com.momosoftworks.coldsweat.config.ConfigSettings;
 import com.momosoftworks.coldsweat.data.codec.configuration.BiomeTempData;
 import com.momosoftworks.coldsweat.util.entity.DummyPlayer;
@@ -20,6 +19,8 @@ import com.momosoftworks.coldsweat.core.network.message.ParticleBatchMessage;
 import com.momosoftworks.coldsweat.core.network.message.PlayEntityAttachedSoundMessage;
 import com.momosoftworks.coldsweat.core.network.message.SyncForgeDataMessage;
 import com.momosoftworks.coldsweat.util.ClientOnlyHelper;
+import com.momosoftworks.coldsweat.common.capability.handler.EntityTempManager;
+import com.momosoftworks.coldsweat.common.capability.temperature.ITemperatureCap;
 import com.momosoftworks.coldsweat.compat.CompatManager;
 import com.momosoftworks.coldsweat.util.math.CSMath;
 import it.unimi.dsi.fastutil.longs.LongSet;
@@ -140,35 +141,56 @@ public abstract class WorldHelper
      */
     public static boolean canSeeSky(LevelAccessor level, BlockPos pos, int maxDistance)
     {
-        BlockPos.MutableBlockPos pos2 = pos.mutable();
         int iterations = Math.min(maxDistance, level.getMaxBuildHeight() - pos.getY());
+        if (iterations <= 0) return true;
         ChunkAccess chunk = getChunk(level, pos);
         if (chunk == null) return true;
+        if (!(level instanceof Level realLevel)) return canSeeSky((BlockGetter) chunk, pos, iterations);
 
-        for (int i = 0; i < iterations; i++)
-        {
-            try
-            {
-                BlockState state = chunk.getBlockState(pos2);
-                if (state.isAir() || state.liquid())
-                {   continue;
-                }
-                VoxelShape shape = state.getShape(level, pos, CollisionContext.empty());
-                if (shape.equals(Shapes.block())) return false;
+        int occluderY = SkyOcclusionCache.get(realLevel).getOccluderY(chunk, pos.getX(), pos.getZ());
+        if (occluderY < pos.getY()) return true;
+        if (occluderY < pos.getY() + iterations) return false;
+        // The highest occluder is out of range, but there may be another one below it
+        return canSeeSky((BlockGetter) chunk, pos, iterations);
+    }
 
-                if (isFullSide(CSMath.flattenShape(Direction.Axis.Y, shape), Direction.UP))
-                {   return false;
-                }
-            }
-            finally
-            {   pos2.move(0, 1, 0);
+    /**
+     * Version of {@link #canSeeSky(LevelAccessor, BlockPos, int)} that reads from any {@link BlockGetter}, like a {@link SectionSnapshot}
+     */
+    public static boolean canSeeSky(BlockGetter getter, BlockPos pos, int maxDistance)
+    {
+        BlockPos.MutableBlockPos pos2 = pos.mutable();
+        int iterations = Math.min(maxDistance, getter.getMaxBuildHeight() - pos.getY());
+
+        for (int i = 0; i < iterations; i++, pos2.move(0, 1, 0))
+        {
+            if (isSkyOccluder(getter, getter.getBlockState(pos2), pos2))
+            {   return false;
             }
         }
         return true;
     }
 
-    public static boolean isSpreadBlocked(LevelAccessor level, BlockState state, BlockPos pos, Direction toDir, Direction fromDir)
+    /**
+     * @return True if the block has a full y-axis face when flattened, meaning it blocks the sky for anything below it
+     */
+    public static boolean isSkyOccluder(BlockGetter level, BlockState state, BlockPos pos)
+    {
+        if (state.isAir() || state.liquid())
+        {   return false;
+        }
+        VoxelShape shape = state.getShape(level, pos, CollisionContext.empty());
+        return shape.equals(Shapes.block())
+            || isFullSide(CSMath.flattenShape(Direction.Axis.Y, shape), Direction.UP);
+    }
+
+    public static boolean isSpreadBlocked(BlockGetter level, BlockState state, BlockPos pos, Direction toDir, Direction fromDir)
     {
+        int flags = SpreadShapeTable.getFlags(state);
+        if ((flags & SpreadShapeTable.POSITIONAL) == 0)
+        {   return SpreadShapeTable.isSpreadBlocked(flags, toDir, fromDir);
+        }
+
         Block block = state.getBlock();
 
         if (block instanceof SmokestackBlock && toDir.getAxis() == Direction.Axis.Y)
@@ -599,7 +621,7 @@ public abstract class WorldHelper
         }
 
         // Get insulation from hearths
-        Pair<Integer, Integer> maxCoolingHeating = getInsulationFromNearbySources(level, pos, 2);
+        Pair<Integer, Integer> maxCoolingHeating = getInsulationFromNearbySources(level, pos);
         int maxCoolingLevel = maxCoolingHeating.getFirst();
         int maxHeatingLevel = maxCoolingHeating.getSecond();
         if (maxCoolingLevel > 0)
@@ -634,7 +656,9 @@ public abstract class WorldHelper
         DummyPlayer dummy = getDummyPlayer(level);
         // Move the dummy to the position being tested
         dummy.setPos(CSMath.getCenterPos(pos));
-        return Temperature.apply(0, dummy, Temperature.Trait.WORLD, Temperature.getModifiers(dummy, Temperature.Trait.WORLD), true);
+        // Apply the dummy's modifiers in place; Temperature.getModifiers() would copy them
+        ITemperatureCap cap = EntityTempManager.getTemperatureCap(dummy).orElse(null);
+        return cap != null ? Temperature.apply(0, dummy, Temperature.Trait.WORLD, cap.getModifiers(Temperature.Trait.WORLD), true) : 0;
     }
 
     public static DummyPlayer getDummyPlayer(Level level)
@@ -728,40 +752,41 @@ public abstract class WorldHelper
         return false;
     }
 
-    public static Pair<Integer, Integer> getInsulationFromNearbySources(Level level, BlockPos pos, int chunkRadius)
+    /**
+     * @return The strongest cooling and heating levels (first and second) of the thermal sources whose area of effect contains the position
+     */
+    public static Pair<Integer, Integer> getInsulationFromNearbySources(Level level, BlockPos pos)
     {
-        int maxCoolingLevel = 0;
-        int maxHeatingLevel = 0;
-        ChunkPos chunkPos = new ChunkPos(pos);
-        for (int x = -chunkRadius; x <= chunkRadius; x++)
-        for (int z = -chunkRadius; z <= chunkRadius; z++)
-        {
-            ChunkAccess chunk = getChunk(level, chunkPos.x + x, chunkPos.z + z);
-            if (chunk == null) continue;
+        ThermalSourceIndex index = ThermalSourceIndex.getIfPresent(level);
+        return index != null ? index.getInsulationAt(pos) : Pair.of(0, 0);
+    }
 
-            for (BlockEntity be : getBlockEntities(chunk).values())
-            {
-                if (be instanceof HearthBlockEntity hearth && hearth.getPathLookup().contains(pos))
-                {
-                    maxCoolingLevel = Math.max(maxCoolingLevel, hearth.getCoolingLevel());
-                    maxHeatingLevel = Math.max(maxHeatingLevel, hearth.getHeatingLevel());
-                }
-            }
-        }
-        return Pair.of(maxCoolingLevel, maxHeatingLevel);
+    /**
+     * Deprecated. Thermal sources are looked up through the {@link ThermalSourceIndex}, so the chunk radius is ignored
+     */
+    @Deprecated(since = "2.3.12", forRemoval = true)
+    public static Pair<Integer, Integer> getInsulationFromNearbySources(Level level, BlockPos pos, int chunkRadius)
+    {   return getInsulationFromNearbySources(level, pos);
     }
 
-    private static final Field CHUNK_BLOCK_ENTITIES = ObfuscationReflectionHelper.findField(ChunkAccess.class, "f_187610_");
-    static { CHUNK_BLOCK_ENTITIES.setAccessible(true); }
+    /**
+     * Deprecated. Use {@link LevelChunk#getBlockEntities()}, or the {@link ThermalSourceIndex} to find thermal sources
+     */
+    @Deprecated(since = "2.3.12", forRemoval = true)
     public static Map<BlockPos, BlockEntity> getBlockEntities(ChunkAccess chunk)
     {
-        try
-        {   return (Map<BlockPos, BlockEntity>) CHUNK_BLOCK_ENTITIES.get(chunk);
+        if (chunk instanceof LevelChunk levelChunk)
+        {   return levelChunk.getBlockEntities();
         }
-        catch (IllegalAccessException e)
-        {   e.printStackTrace();
+        Map<BlockPos, BlockEntity> blockEntities = new HashMap<>();
+        for (BlockPos pos : chunk.getBlockEntitiesPos())
+        {
+            BlockEntity blockEntity = chunk.getBlockEntity(pos);
+            if (blockEntity != null)
+            {   blockEntities.put(pos, blockEntity);
+            }
         }
-        return Collections.emptyMap();
+        return blockEntities;
     }
 
     public record TempSnapshot(Level level, BlockPos pos, long timestamp, double temperature) {}
@@ -0,0 +1,92 @@
+package com.momosoftworks.coldsweat.client.particle;
+
+import net.minecraft.client.ParticleStatus;
+import net.minecraft.world.phys.Vec3;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the emitter without a client, counting the particles that reach the sink in each simulated frame
+ */
+public class ThermalParticleEmitterTest
+{
+    private int sinkCount = 0;
+
+    private ThermalParticleEmitter createEmitter(int budget)
+    {   return new ThermalParticleEmitter((particle, x, y, z, vx, vy, vz) -> sinkCount++, () -> Vec3.ZERO, () -> budget, new Random(1234));
+    }
+
+    @Test
+    public void budgetLimitsParticlesPerFrame()
+    {
+        ThermalParticleEmitter emitter = createEmitter(50);
+        for (int frame = 0; frame < 10; frame++)
+        {
+            emitter.beginFrame();
+            sinkCount = 0;
+            // 15 hearths' worth of particles, all close to the camera
+            for (int i = 0; i < 15 * 40; i++)
+            {
+                if (emitter.shouldEmit(4, 0, 4, 1f))
+                {   emitter.emit(null, 4, 0, 4, 0, 0, 0);
+                }
+            }
+            assertEquals(50, emitter.getEmitted());
+            assertEquals(50, sinkCount);
+            assertFalse(emitter.shouldEmit(4, 0, 4, 1f));
+            assertFalse(emitter.emit(null, 4, 0, 4, 0, 0, 0));
+        }
+    }
+
+    @Test
+    public void minimalParticlesEmitNothing()
+    {
+        ThermalParticleEmitter emitter = createEmitter(ThermalParticleEmitter.getBudgetForSetting(ParticleStatus.MINIMAL));
+        emitter.beginFrame();
+        assertFalse(emitter.shouldEmit(0, 0, 0, 1f));
+        assertFalse(emitter.emit(null, 0, 0, 0, 0, 0, 0));
+        assertEquals(0, emitter.getEmitted());
+        assertEquals(0, sinkCount);
+    }
+
+    @Test
+    public void budgetsForSettings()
+    {
+        assertEquals(200, ThermalParticleEmitter.getBudgetForSetting(ParticleStatus.ALL));
+        assertEquals(50, ThermalParticleEmitter.getBudgetForSetting(ParticleStatus.DECREASED));
+        assertEquals(0, ThermalParticleEmitter.getBudgetForSetting(ParticleStatus.MINIMAL));
+    }
+
+    @Test
+    public void chanceFallsOffWithDistance()
+    {
+        ThermalParticleEmitter emitter = createEmitter(Integer.MAX_VALUE);
+        emitter.beginFrame();
+
+        int trials = 20000;
+        // Full density within 16 blocks
+        assertEquals(1.0, emitRate(emitter, 8, trials));
+        assertEquals(1.0, emitRate(emitter, ThermalParticleEmitter.FULL_DENSITY_DISTANCE, trials));
+        // Half density halfway between 16 and 32 blocks
+        assertEquals(0.5, emitRate(emitter, 24, trials), 0.03);
+        assertEquals(0.25, emitRate(emitter, 28, trials), 0.03);
+        // Nothing at or past 32 blocks
+        assertEquals(0.0, emitRate(emitter, ThermalParticleEmitter.MAX_DISTANCE, trials));
+        assertEquals(0.0, emitRate(emitter, 64, trials));
+    }
+
+    private static double emitRate(ThermalParticleEmitter emitter, double distance, int trials)
+    {
+        int emitted = 0;
+        for (int i = 0; i < trials; i++)
+        {
+            if (emitter.shouldEmit(distance, 0, 0, 1f))
+            {   emitted++;
+            }
+        }
+        return emitted / (double) trials;
+    }
+}
@@ -0,0 +1,57 @@
+package com.momosoftworks.coldsweat.util.world;
+
+import com.mojang.datafixers.util.Pair;
+import com.momosoftworks.coldsweat.util.math.FastMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures the memory used by a full hearth volume, stored the way hearths used to store it
+ * (a list of {@link SpreadPath}s, a {@link HashSet} lookup and a {@link FastMap} of sky states) and as a {@link SpreadVolume}
+ */
+public class SpreadVolumeMemoryTest
+{
+    // A 40 x 15 x 20 room, which fills a hearth's volume at the default "Hearth Volume" of 12000
+    private static final int SIZE_X = 40, SIZE_Y = 15, SIZE_Z = 20;
+    private static final int PATHS = SIZE_X * SIZE_Y * SIZE_Z;
+    private static final BlockPos HEARTH_POS = new BlockPos(0, 62, 0);
+
+    @Test
+    public void spreadVolumeUsesLessMemoryThanBoxedPaths()
+    {
+        // Hearths sized their path list, lookup and sky map to the maximum number of paths
+        List<SpreadPath> paths = new ArrayList<>(PATHS);
+        Set<BlockPos> pathLookup = new HashSet<>(PATHS);
+        Map<Pair<Integer, Integer>, Pair<Integer, Boolean>> seeSkyMap = new FastMap<>(PATHS);
+
+        SpreadVolume volume = new SpreadVolume();
+
+        for (int x = 0; x < SIZE_X; x++)
+        for (int z = 0; z < SIZE_Z; z++)
+        {
+            for (int y = 0; y < SIZE_Y; y++)
+            {
+                BlockPos pos = new BlockPos(x - SIZE_X / 2, 64 + y, z - SIZE_Z / 2);
+                paths.add(new SpreadPath(pos, Direction.UP).setOrigin(HEARTH_POS));
+                pathLookup.add(pos);
+
+                volume.add(pos.asLong(), Direction.UP, HEARTH_POS.asLong());
+            }
+            seeSkyMap.put(Pair.of(x, z), Pair.of(64 + SIZE_Y, false));
+            volume.setSkyState(x, z, 64 + SIZE_Y, false);
+        }
+        assertEquals(PATHS, volume.size());
+
+        long boxedBytes = GraphLayout.parseInstance(paths, pathLookup, seeSkyMap).totalSize();
+        long volumeBytes = GraphLayout.parseInstance(volume).totalSize();
+        assertTrue(volumeBytes * 2 < boxedBytes,
+                   () -> String.format("SpreadVolume should use less than half the memory of the boxed paths, but a volume of %d paths used %d bytes (%.1f per path), against %d bytes (%.1f per path)",
+                                       PATHS, volumeBytes, volumeBytes / (double) PATHS, boxedBytes, boxedBytes / (double) PATHS));
+    }
+}